@@ -0,0 +1,329 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.testing.i18n.sanitycheck.metrics.StripedMetrics;
+
+import com.ibm.icu.text.BreakIterator;
+import com.ibm.icu.text.Collator;
+import com.ibm.icu.text.DateFormat;
+import com.ibm.icu.util.TimeZone;
+import com.ibm.icu.util.ULocale;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a reproducible corpus of (template, actual, locale) cases through a
+ * {@link SanityCheckEngine} for a fixed time and prints the throughput and the p50, p99 and
+ * p99.9 latencies for every checker and locale, followed by the share of candidate formats every
+ * checker pruned without parsing. The corpus consists of the examples of
+ * {@code SanityCheckersTests} and of values generated for every locale of
+ * {@link TestUtils#PREDEF_LOCALES} from a fixed seed, so runs of two versions of the library on
+ * the same machine are comparable. For example:
+ * <p>
+ * <code>
+ * java -cp benchmarks/target/benchmarks.jar com.google.testing.i18n.sanitycheck.CorpusHarness
+ * --warmup 10 --duration 60
+ * </code>
+ */
+public final class CorpusHarness {
+
+  /** Label of the examples that contain placeholders of several checkers. */
+  private static final String MIXED = "mixed";
+
+  private static final int DEFAULT_WARMUP_SECONDS = 10;
+  private static final int DEFAULT_DURATION_SECONDS = 30;
+  private static final long SEED = 42;
+  private static final int CASES_PER_LOCALE = 8;
+  private static final int LIST_SIZE = 8;
+  /** Generated dates lie between 1970 and 2040. */
+  private static final long DATE_RANGE_MILLIS = TimeUnit.DAYS.toMillis(70 * 365);
+  private static final ImmutableList<String> TIME_ZONES = ImmutableList.of(
+      "America/Los_Angeles", "America/Sao_Paulo", "Europe/Paris", "Europe/Moscow",
+      "Africa/Cairo", "Asia/Kolkata", "Asia/Tokyo", "Australia/Sydney");
+  private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+  /** A single check of the corpus. */
+  private static final class Case {
+    final String checker;
+    final String expected;
+    final String actual;
+    final ULocale locale;
+
+    Case(String checker, String expected, String actual, ULocale locale) {
+      this.checker = checker;
+      this.expected = expected;
+      this.actual = actual;
+      this.locale = locale;
+    }
+
+    String getKey() {
+      return checker + "\t" + locale;
+    }
+  }
+
+  /** Latency samples and failures of a single checker and locale. */
+  private static final class Samples {
+    private long[] nanos = new long[1024];
+    private int size;
+    private int failures;
+
+    void add(long value, boolean passed) {
+      if (size == nanos.length) {
+        nanos = Arrays.copyOf(nanos, size * 2);
+      }
+      nanos[size++] = value;
+      if (!passed) {
+        failures++;
+      }
+    }
+  }
+
+  /** Do not instantiate */
+  private CorpusHarness() {}
+
+  public static void main(String[] args) {
+    int warmupSeconds = DEFAULT_WARMUP_SECONDS;
+    int durationSeconds = DEFAULT_DURATION_SECONDS;
+    for (int i = 0; i < args.length; i++) {
+      if ("--warmup".equals(args[i]) && i + 1 < args.length) {
+        warmupSeconds = Integer.parseInt(args[++i]);
+      } else if ("--duration".equals(args[i]) && i + 1 < args.length) {
+        durationSeconds = Integer.parseInt(args[++i]);
+      } else {
+        System.err.println("Usage: CorpusHarness [--warmup <seconds>] [--duration <seconds>]");
+        System.exit(2);
+      }
+    }
+    ImmutableList<Case> corpus = buildCorpus();
+    StripedMetrics metrics = new StripedMetrics();
+    SanityCheckEngine engine = SanityCheckEngine.builder().metrics(metrics).build();
+    engine.warmUp(TestUtils.PREDEF_LOCALES);
+    run(engine, corpus, TimeUnit.SECONDS.toNanos(warmupSeconds));
+    Map<String, Samples> samples = run(engine, corpus, TimeUnit.SECONDS.toNanos(durationSeconds));
+    printReport(corpus.size(), samples, durationSeconds, System.out);
+    printPruning(metrics, System.out);
+  }
+
+  /** Returns the corpus: the integration examples followed by the generated cases. */
+  private static ImmutableList<Case> buildCorpus() {
+    ImmutableList.Builder<Case> corpus = ImmutableList.builder();
+    corpus.addAll(getExamples());
+    Random random = new Random(SEED);
+    for (ULocale locale : TestUtils.PREDEF_LOCALES) {
+      for (int i = 0; i < CASES_PER_LOCALE; i++) {
+        corpus.addAll(generateCases(locale, random));
+      }
+    }
+    return corpus.build();
+  }
+
+  /** Returns the real life examples of {@code SanityCheckersTests}. */
+  private static ImmutableList<Case> getExamples() {
+    return ImmutableList.of(
+        new Case("none", "Simple Check", "Simple Check", ULocale.US),
+        new Case("number", "{number}", "￥1,235", ULocale.JAPAN),
+        new Case(MIXED,
+            "{greetings} Ann I will meet you at {time:{locale:'en-US'}}, {date}. And {ignore}",
+            "{greetings} Ann I will meet you at 11:30 am, January 12, 2014. And something else.",
+            ULocale.US),
+        new Case("number",
+            "У * [0-9]+ меня есть {number:{value:120}} яблок. И {number} из них я отдам тебе.",
+            "У * [0-9]+ меня есть сто двадцать яблок. И 5 из них я отдам тебе.", new ULocale("ru")),
+        new Case("number", "Schumacher came {number:{value:1}}", "Schumacher came first",
+            ULocale.UK),
+        new Case("number", "明日は{number:{value:15.6}}を費やすでしょう。", "明日は15.6円を費やすでしょう。",
+            ULocale.JAPANESE),
+        new Case("period", "Event continues from {period:{splitter:'till'}}",
+            "Event continues from January 12, 2014 till 11:30 am", ULocale.US),
+        new Case("datetime", "{datetime:{pattern:'dd/MM/yyyy HH:mm'}}", "14/13/2013 22:15",
+            ULocale.GERMAN),
+        new Case("datetime", "{datetime:{skeleton:'MMMMddHmm'}}", "14. Oktober 8:58",
+            ULocale.GERMAN),
+        new Case("number", "{number:{value:'2013'}}", "MMXIII", ULocale.US),
+        new Case("number", "{number}", "١٦٨", new ULocale("fa")),
+        new Case("number", "{number}", "౧౩౮", new ULocale("te")),
+        new Case("number", "Ответ {number:{locale:'ru'}}", "Ответ сорок два", new ULocale("ar")),
+        new Case("locale", "{locale}, {locale}, {locale:{value:'zh_CN_#HANS'}}",
+            "ar-XB, en_XA, zh_CN_#Hans", ULocale.US),
+        new Case("timezone", "{timezone:{value:'Eastern Time'}}", "ET", ULocale.US),
+        new Case("sorting", "{sorting}", "a,b,c,d,e", ULocale.US),
+        new Case("sorting", "{sorting}", "Tokyo,こんにちは,東京", ULocale.JAPANESE),
+        new Case("sorting", "{sorting:{lenient:false,strict:true}}", "a-b,ab,aB", ULocale.US),
+        new Case("phone", "{phone}", "+64 3 331 6666", ULocale.US),
+        new Case("phone", "{phone:{lenient:false, strict:true}}", "+86 (0755) 22445566",
+            ULocale.CHINA),
+        new Case(MIXED, "<data>" + LINE_SEPARATOR + "<name>{ignore}</name>" + LINE_SEPARATOR
+            + "<dob>{date:{locale:'ja'}}</dob>" + LINE_SEPARATOR + "<phone>{phone}<phone>"
+            + LINE_SEPARATOR + "</data>", "<data>" + LINE_SEPARATOR + "<name>Zapp</name>"
+            + LINE_SEPARATOR + "<dob>2008年12月31日</dob>" + LINE_SEPARATOR
+            + "<phone>+1 650 224 2244<phone>" + LINE_SEPARATOR + "</data>", ULocale.US),
+        new Case("tokenization", "{tokenization}", "สัปดาห์,ที่,ส", new ULocale("th")),
+        new Case("tokenization", "{tokenization}", "自民党,総裁,選挙", ULocale.JAPANESE));
+  }
+
+  /** Returns a case of every generated kind for a given locale. */
+  private static ImmutableList<Case> generateCases(ULocale locale, Random random) {
+    Date date = nextDate(random);
+    int style = random.nextInt(4);
+    String dateTime = DateFormat.getDateTimeInstance(style, style, locale).format(date);
+
+    String[] numbers = new String[LIST_SIZE];
+    for (int i = 0; i < numbers.length; i++) {
+      numbers[i] = TestUtils.generateRandomFormattedNumber(locale);
+    }
+    Arrays.sort(numbers, Collator.getInstance(locale));
+
+    Date first = nextDate(random);
+    Date second = nextDate(random);
+    DateFormat periodFormat =
+        DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, locale);
+    String period = periodFormat.format(first.before(second) ? first : second) + " - "
+        + periodFormat.format(first.before(second) ? second : first);
+
+    TimeZone timeZone = TimeZone.getTimeZone(TIME_ZONES.get(random.nextInt(TIME_ZONES.size())));
+    String fullDate =
+        DateFormat.getDateTimeInstance(DateFormat.FULL, DateFormat.FULL, locale).format(date);
+    String tokens = Joiner.on(';').join(getWords(fullDate, locale));
+
+    return ImmutableList.of(
+        new Case("number", "Total: {number}.",
+            "Total: " + TestUtils.generateRandomFormattedNumber(locale) + ".", locale),
+        new Case("date", "On {date}",
+            "On " + DateFormat.getDateInstance(style, locale).format(date), locale),
+        new Case("time", "At {time}",
+            "At " + DateFormat.getTimeInstance(style, locale).format(date), locale),
+        new Case("datetime", "[{datetime}]", "[" + dateTime + "]", locale),
+        new Case("period", "{period:{splitter:' - '}}", period, locale),
+        new Case("sorting", "{sorting:{splitter:';'}}", Joiner.on(';').join(numbers), locale),
+        new Case("timezone", "Zone: {timezone}",
+            "Zone: " + timeZone.getDisplayName(random.nextBoolean(), TimeZone.LONG, locale),
+            locale),
+        new Case("tokenization",
+            "{tokenization:{splitter:';', value:'" + quote(fullDate) + "'}}", tokens, locale));
+  }
+
+  /** Escapes a given text for a single quoted placeholder parameter. */
+  private static String quote(String text) {
+    return text.replace("\\", "\\\\").replace("'", "\\'");
+  }
+
+  /** Splits a given text at the word boundaries of a given locale. */
+  private static ImmutableList<String> getWords(String text, ULocale locale) {
+    BreakIterator breakIterator = BreakIterator.getWordInstance(locale);
+    breakIterator.setText(text);
+    ImmutableList.Builder<String> result = ImmutableList.builder();
+    int start = breakIterator.first();
+    for (int end = breakIterator.next(); end != BreakIterator.DONE; start = end,
+        end = breakIterator.next()) {
+      result.add(text.substring(start, end));
+    }
+    return result.build();
+  }
+
+  private static Date nextDate(Random random) {
+    return new Date((long) (random.nextDouble() * DATE_RANGE_MILLIS));
+  }
+
+  /** Checks the corpus round robin for a given time and returns the samples by case key. */
+  private static Map<String, Samples> run(SanityCheckEngine engine, ImmutableList<Case> corpus,
+      long durationNanos) {
+    Map<String, Samples> samples = Maps.newTreeMap();
+    for (Case c : corpus) {
+      if (!samples.containsKey(c.getKey())) {
+        samples.put(c.getKey(), new Samples());
+      }
+    }
+    long end = System.nanoTime() + durationNanos;
+    int index = 0;
+    while (System.nanoTime() < end) {
+      Case c = corpus.get(index);
+      long start = System.nanoTime();
+      boolean passed;
+      try {
+        passed = engine.check(c.expected, c.actual, c.locale).isPassed();
+      } catch (RuntimeException e) {
+        // A checker that throws is reported as a failed check rather than ending the run.
+        passed = false;
+      }
+      samples.get(c.getKey()).add(System.nanoTime() - start, passed);
+      index = (index + 1) % corpus.size();
+    }
+    return samples;
+  }
+
+  private static void printReport(int corpusSize, Map<String, Samples> samples,
+      int durationSeconds, PrintStream out) {
+    out.printf("Corpus of %d cases checked for %d s%n", corpusSize, durationSeconds);
+    out.printf("%-14s %-12s %10s %10s %8s %10s %10s %10s%n", "checker", "locale", "checks",
+        "checks/s", "failed", "p50 us", "p99 us", "p99.9 us");
+    int total = 0;
+    for (Samples s : samples.values()) {
+      total += s.size;
+    }
+    long[] all = new long[total];
+    int filled = 0;
+    int failures = 0;
+    for (Map.Entry<String, Samples> entry : samples.entrySet()) {
+      Samples s = entry.getValue();
+      long[] sorted = Arrays.copyOf(s.nanos, s.size);
+      Arrays.sort(sorted);
+      String[] key = entry.getKey().split("\t", 2);
+      printRow(key[0], key[1], sorted, s.failures, durationSeconds, out);
+      System.arraycopy(sorted, 0, all, filled, sorted.length);
+      filled += sorted.length;
+      failures += s.failures;
+    }
+    Arrays.sort(all);
+    printRow("TOTAL", "", all, failures, durationSeconds, out);
+  }
+
+  /** Prints the share of the candidates every checker pruned, over warm-up and measurement. */
+  private static void printPruning(StripedMetrics metrics, PrintStream out) {
+    out.printf("%n%-14s %12s %12s %8s%n", "checker", "candidates", "pruned", "ratio");
+    Map<String, Long> pruned = metrics.getCandidatesPruned();
+    for (Map.Entry<String, Long> entry : metrics.getCandidatesConsidered().entrySet()) {
+      long candidates = entry.getValue();
+      long prunedCandidates = pruned.containsKey(entry.getKey()) ? pruned.get(entry.getKey()) : 0;
+      out.printf("%-14s %12d %12d %7.1f%%%n", entry.getKey(), candidates, prunedCandidates,
+          candidates == 0 ? 0.0 : 100.0 * prunedCandidates / candidates);
+    }
+  }
+
+  private static void printRow(String checker, String locale, long[] sorted, int failures,
+      int durationSeconds, PrintStream out) {
+    out.printf("%-14s %-12s %10d %10.1f %8d %10.1f %10.1f %10.1f%n", checker, locale,
+        sorted.length, (double) sorted.length / durationSeconds, failures,
+        percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999));
+  }
+
+  /** Returns the nearest rank percentile of sorted latencies in microseconds. */
+  private static double percentile(long[] sorted, double fraction) {
+    if (sorted.length == 0) {
+      return Double.NaN;
+    }
+    int rank = (int) Math.ceil(fraction * sorted.length);
+    return sorted[Math.max(rank, 1) - 1] / 1000.0;
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.i18n.sanitycheck.TestUtils;
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import com.ibm.icu.util.ULocale;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Common part of the checker benchmarks. Every benchmark checks a fixed set of inputs generated for
+ * the {@link TestUtils#PREDEF_LOCALES}, one input after another with the locales interleaved, so
+ * per locale caches are exercised the same way as by a mixed test suite. Inputs are generated once
+ * per trial from the seeded {@link TestUtils} generators and are the same in every run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class CheckerBenchmark {
+
+  /** Value of {@link #locale} that selects all {@link TestUtils#PREDEF_LOCALES}. */
+  public static final String ALL_LOCALES = "all";
+
+  /** Number of inputs generated for every locale. */
+  static final int INPUTS_PER_LOCALE = 32;
+
+  /** Locale to check, or {@link #ALL_LOCALES}. E.g. "-p locale=ja_JP" narrows a run to Japanese. */
+  @Param(ALL_LOCALES)
+  public String locale;
+
+  private EvaluatingChecker checker;
+  private Placeholder[] inputs;
+  private ULocale[] inputLocales;
+  private int next;
+
+  @Setup
+  public void setUp() throws Exception {
+    checker = createChecker();
+    List<ULocale> locales = ALL_LOCALES.equals(locale)
+        ? TestUtils.PREDEF_LOCALES : ImmutableList.of(new ULocale(locale));
+    List<Placeholder> placeholders = new ArrayList<Placeholder>();
+    List<ULocale> placeholderLocales = new ArrayList<ULocale>();
+    for (int i = 0; i < INPUTS_PER_LOCALE; i++) {
+      for (ULocale inputLocale : locales) {
+        placeholders.add(createInput(inputLocale));
+        placeholderLocales.add(inputLocale);
+      }
+    }
+    inputs = placeholders.toArray(new Placeholder[placeholders.size()]);
+    inputLocales = placeholderLocales.toArray(new ULocale[placeholderLocales.size()]);
+    next = 0;
+  }
+
+  /** Checks the next input. Returns the failure, so the result is consumed by JMH. */
+  @Benchmark
+  public CheckFailure check() {
+    int index = next;
+    next = index + 1 == inputs.length ? 0 : index + 1;
+    return checker.evaluate(inputs[index], inputLocales[index], null);
+  }
+
+  /** Creates the checker under test. Called once per trial. */
+  protected abstract EvaluatingChecker createChecker();
+
+  /**
+   * Creates one input for a given locale by means of the {@link TestUtils} generators.
+   *
+   * @param locale the input is formatted for
+   * @return placeholder with the actual content to check
+   */
+  protected abstract Placeholder createInput(ULocale locale);
+}
@@ -0,0 +1,44 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.testing.i18n.sanitycheck.TestUtils;
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import com.ibm.icu.text.DateFormat;
+import com.ibm.icu.util.ULocale;
+
+import java.util.Date;
+
+/** Benchmarks {@link DateTimePeriodChecker} with periods between two random dates. */
+public class DateTimePeriodCheckerBenchmark extends CheckerBenchmark {
+
+  @Override
+  protected EvaluatingChecker createChecker() {
+    return new DateTimePeriodChecker();
+  }
+
+  @Override
+  protected Placeholder createInput(ULocale locale) {
+    DateFormat format = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, locale);
+    Date first = TestUtils.generateRandomDate();
+    Date second = TestUtils.generateRandomDate();
+    Date start = first.before(second) ? first : second;
+    Date end = first.before(second) ? second : first;
+    return Placeholder.builder("period", format.format(start) + " - " + format.format(end))
+        .putSplitterParam(" - ").build();
+  }
+}
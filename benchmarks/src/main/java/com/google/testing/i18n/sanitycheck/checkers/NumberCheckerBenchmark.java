@@ -0,0 +1,35 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.testing.i18n.sanitycheck.TestUtils;
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import com.ibm.icu.util.ULocale;
+
+/** Benchmarks {@link NumberChecker} with random numbers formatted by random formatters. */
+public class NumberCheckerBenchmark extends CheckerBenchmark {
+
+  @Override
+  protected EvaluatingChecker createChecker() {
+    return new NumberChecker();
+  }
+
+  @Override
+  protected Placeholder createInput(ULocale locale) {
+    return Placeholder.builder("number", TestUtils.generateRandomFormattedNumber(locale)).build();
+  }
+}
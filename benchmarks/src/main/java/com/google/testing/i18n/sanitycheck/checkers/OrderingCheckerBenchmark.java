@@ -0,0 +1,51 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.base.Joiner;
+import com.google.testing.i18n.sanitycheck.TestUtils;
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import com.ibm.icu.text.Collator;
+import com.ibm.icu.util.ULocale;
+
+import java.util.Arrays;
+
+/**
+ * Benchmarks {@link OrderingChecker} with lists of random formatted numbers sorted by the collator
+ * of the locale.
+ */
+public class OrderingCheckerBenchmark extends CheckerBenchmark {
+
+  /** Number of elements in every list. */
+  private static final int LIST_SIZE = 8;
+
+  @Override
+  protected EvaluatingChecker createChecker() {
+    return new OrderingChecker();
+  }
+
+  @Override
+  protected Placeholder createInput(ULocale locale) {
+    String[] elements = new String[LIST_SIZE];
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = TestUtils.generateRandomFormattedNumber(locale);
+    }
+    Arrays.sort(elements, Collator.getInstance(locale));
+    return Placeholder.builder("sorting", Joiner.on('|').join(elements))
+        .putSplitterParam("\\|").build();
+  }
+}
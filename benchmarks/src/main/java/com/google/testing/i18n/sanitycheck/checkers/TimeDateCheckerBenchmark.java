@@ -0,0 +1,65 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.testing.i18n.sanitycheck.TestUtils;
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import com.ibm.icu.text.DateFormat;
+import com.ibm.icu.util.ULocale;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks {@link TimeDateChecker} with each of its producers. Inputs are random dates formatted
+ * in a random style of the matching kind.
+ */
+public class TimeDateCheckerBenchmark extends CheckerBenchmark {
+
+  /** Placeholder name that selects the producer. */
+  @Param({"time", "date", "datetime"})
+  public String producer;
+
+  @Override
+  protected EvaluatingChecker createChecker() {
+    switch (producer) {
+      case "time":
+        return new TimeDateChecker(new TimeStringFormatProducer());
+      case "date":
+        return new TimeDateChecker(new DateStringFormatProducer());
+      default:
+        return new TimeDateChecker(new DateTimeStringFormatProducer());
+    }
+  }
+
+  @Override
+  protected Placeholder createInput(ULocale locale) {
+    int style = (int) TestUtils.nextLong(DateFormat.SHORT + 1);
+    DateFormat format;
+    switch (producer) {
+      case "time":
+        format = DateFormat.getTimeInstance(style, locale);
+        break;
+      case "date":
+        format = DateFormat.getDateInstance(style, locale);
+        break;
+      default:
+        format = DateFormat.getDateTimeInstance(style, style, locale);
+        break;
+    }
+    return Placeholder.builder(producer, format.format(TestUtils.generateRandomDate())).build();
+  }
+}
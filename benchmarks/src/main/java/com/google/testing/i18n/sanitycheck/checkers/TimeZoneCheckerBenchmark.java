@@ -0,0 +1,48 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.i18n.sanitycheck.TestUtils;
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import com.ibm.icu.util.TimeZone;
+import com.ibm.icu.util.ULocale;
+
+/**
+ * Benchmarks {@link TimeZoneChecker} with the localized names of time zones from every continent,
+ * in standard and daylight time.
+ */
+public class TimeZoneCheckerBenchmark extends CheckerBenchmark {
+
+  private static final ImmutableList<String> TIME_ZONES = ImmutableList.of(
+      "America/Los_Angeles", "America/Sao_Paulo", "Europe/Paris", "Europe/Moscow",
+      "Africa/Cairo", "Asia/Kolkata", "Asia/Tokyo", "Australia/Sydney");
+
+  @Override
+  protected EvaluatingChecker createChecker() {
+    return new TimeZoneChecker();
+  }
+
+  @Override
+  protected Placeholder createInput(ULocale locale) {
+    TimeZone timeZone = TimeZone.getTimeZone(
+        TIME_ZONES.get((int) TestUtils.nextLong(TIME_ZONES.size())));
+    boolean daylight = TestUtils.nextLong(2) == 0;
+    return Placeholder.builder("timezone",
+        timeZone.getDisplayName(daylight, TimeZone.LONG, locale)).build();
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.base.Joiner;
+import com.google.testing.i18n.sanitycheck.TestUtils;
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import com.ibm.icu.text.BreakIterator;
+import com.ibm.icu.text.DateFormat;
+import com.ibm.icu.util.ULocale;
+
+/**
+ * Benchmarks {@link TokenizationChecker} with random dates in the full format of the locale, split
+ * into words by the word break iterator of the locale.
+ */
+public class TokenizationCheckerBenchmark extends CheckerBenchmark {
+
+  private final TokenizationChecker checker = new TokenizationChecker();
+
+  @Override
+  protected EvaluatingChecker createChecker() {
+    return checker;
+  }
+
+  @Override
+  protected Placeholder createInput(ULocale locale) {
+    String text = DateFormat.getDateTimeInstance(DateFormat.FULL, DateFormat.FULL, locale)
+        .format(TestUtils.generateRandomDate());
+    String tokens = Joiner.on('|').join(
+        checker.getTokens(text, BreakIterator.getWordInstance(locale)));
+    return Placeholder.builder("tokenization", tokens).putSplitterParam("\\|")
+        .putExpectedValueParam(text).build();
+  }
+}
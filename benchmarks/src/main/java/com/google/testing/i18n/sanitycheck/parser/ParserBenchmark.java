@@ -0,0 +1,157 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.parser;
+
+import com.google.common.collect.ImmutableList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Parser#parse(String, CompiledTemplate)} alone, with precompiled templates of
+ * {ignore} placeholders, so no checker is involved. Parameters scale the number of placeholders,
+ * the length of the actual string and the layout of the expected string. Both
+ * {@link Parser.ExtractionEngine}s are measured, which shows where the lazy {@code (.*?)} groups of
+ * the regular expression engine fall off a cliff.
+ * <p>
+ * The actual strings look like captured page text: words, line breaks and fragments of the static
+ * text of the expected string, so both engines see many near matches. With several placeholders,
+ * an actual string that does not match makes the regular expression engine backtrack in time
+ * polynomial in its length, with the number of placeholders as the exponent. Such runs do not
+ * finish even for a few kilobytes, so mismatches are only measured on request, e.g. with
+ * "-p matching=false -p placeholderCount=1".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+  /** Ways to place the placeholders in the expected string. */
+  public enum Layout {
+    /** Placeholders separated by short, distinct static text, e.g. "<1>{ignore}<2>{ignore}". */
+    SEPARATED,
+    /** Placeholders next to each other, e.g. "{ignore}{ignore}END". */
+    ADJACENT,
+    /** Static text full of regular expression metacharacters and escaped braces. */
+    ESCAPED
+  }
+
+  private static final String PLACEHOLDER = "{ignore}";
+  private static final String END = "END";
+  private static final ImmutableList<String> WORDS =
+      ImmutableList.of("lorem", "ipsum", "<", ">", "{", "}", "(x|y)", "E", "EN", "12", " ", ", ");
+
+  @Param({"1", "8", "64", "200"})
+  public int placeholderCount;
+
+  /** Approximate length of the actual string in characters. */
+  @Param({"1024", "65536", "4194304"})
+  public int actualLength;
+
+  @Param({"SEPARATED", "ADJACENT", "ESCAPED"})
+  public Layout layout;
+
+  @Param({"SEGMENTS", "REGEX"})
+  public Parser.ExtractionEngine engine;
+
+  /** If false, the actual string misses the final static text of the expected one. */
+  @Param("true")
+  public boolean matching;
+
+  private Parser parser;
+  private CompiledTemplate template;
+  private String actual;
+
+  @Setup
+  public void setUp() throws ParserException {
+    Random random = new Random(42);
+    StringBuilder expected = new StringBuilder();
+    StringBuilder literals = new StringBuilder();
+    for (int i = 0; i < placeholderCount; i++) {
+      String literal = getLiteral(i);
+      expected.append(literal).append(PLACEHOLDER);
+      literals.append(literal);
+    }
+    expected.append(END);
+    int fillerLength = Math.max(1, (actualLength - literals.length()) / placeholderCount);
+
+    StringBuilder actualText = new StringBuilder();
+    for (int i = 0; i < placeholderCount; i++) {
+      actualText.append(unescape(getLiteral(i)));
+      appendFiller(actualText, fillerLength, random);
+    }
+    if (matching) {
+      actualText.append(END);
+    }
+    parser = new Parser(1, engine);
+    template = parser.compile(expected.toString());
+    actual = actualText.toString();
+    if (matching) {
+      // Fails fast on a broken setup rather than measuring the error path.
+      parser.parse(actual, template);
+    }
+  }
+
+  @Benchmark
+  public Object parse() {
+    try {
+      return parser.parse(actual, template);
+    } catch (ParserException e) {
+      return e;
+    }
+  }
+
+  /** Returns the static text in front of the placeholder with a given index. */
+  private String getLiteral(int index) {
+    switch (layout) {
+      case SEPARATED:
+        return "<" + index + ">";
+      case ADJACENT:
+        return "";
+      default:
+        return "\\{" + index + "\\}.*?(x|y)[^$]+";
+    }
+  }
+
+  /** Returns the text a given static text of the expected string stands for. */
+  private static String unescape(String literal) {
+    return literal.replace("\\{", "{").replace("\\}", "}");
+  }
+
+  /** Appends text of a given length that consists of random words and line breaks. */
+  private static void appendFiller(StringBuilder text, int length, Random random) {
+    int end = text.length() + length;
+    while (text.length() < end) {
+      text.append(random.nextInt(16) == 0 ? "\n" : WORDS.get(random.nextInt(WORDS.size())));
+    }
+    text.setLength(end);
+  }
+}
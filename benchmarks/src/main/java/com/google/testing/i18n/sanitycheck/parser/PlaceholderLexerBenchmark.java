@@ -0,0 +1,91 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares {@link PlaceholderLexer} with the regular expression based placeholder detection it
+ * replaced on long expected strings with static text, escaped braces and placeholders with
+ * parameters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class PlaceholderLexerBenchmark {
+
+  /** Regular expression based placeholder detection that the lexer replaces. */
+  private static final Pattern PLACEHOLDER_PATTERN =
+      Pattern.compile("((?<!\\\\)\\{.*?(?<!\\\\)\\}+)", Pattern.MULTILINE | Pattern.DOTALL);
+
+  @Param({"10", "100", "1000"})
+  public int placeholderCount;
+
+  private String expected;
+
+  @Setup
+  public void setUp() {
+    StringBuilder result = new StringBuilder();
+    for (int i = 0; i < placeholderCount; i++) {
+      result.append("Static text \\{").append(i).append("\\} with some words before ");
+      result.append(i % 2 == 0 ? "{date}" : "{number:{lenient:false, value:" + i + "}}");
+    }
+    expected = result.append(" and the end.").toString();
+  }
+
+  @Benchmark
+  public Object lexer() {
+    return PlaceholderLexer.tokenize(expected);
+  }
+
+  /** Reproduces the two passes the parser used to make over the expected string. */
+  @Benchmark
+  public void regex(Blackhole blackhole) {
+    Matcher matcher = PLACEHOLDER_PATTERN.matcher(expected);
+    int position = 0;
+    while (matcher.find()) {
+      blackhole.consume(unescape(expected.substring(position, matcher.start())));
+      position = matcher.end();
+    }
+    blackhole.consume(unescape(expected.substring(position)));
+    matcher.reset();
+    while (matcher.find()) {
+      blackhole.consume(unescape(matcher.group()));
+    }
+  }
+
+  private static String unescape(String text) {
+    return text.replace("\\{", "{").replace("\\}", "}");
+  }
+}
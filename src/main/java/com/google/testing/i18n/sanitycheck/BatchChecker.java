@@ -0,0 +1,118 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.testing.i18n.sanitycheck.checkers.CheckFailure;
+import com.google.testing.i18n.sanitycheck.parser.Parser;
+
+import com.ibm.icu.util.ULocale;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * An object that validates a batch of {@link CheckRequest}s by means of an {@link Executor}.
+ * Requests are grouped by locale and every group is split into chunks of up to
+ * {@link #CHUNK_SIZE} requests. Every chunk runs as one task, so a worker thread checks many
+ * strings of the same locale in a row and reuses the ICU formatters that are cached per thread and
+ * locale.
+ */
+final class BatchChecker {
+
+  /** Maximum number of requests of the same locale checked by one task. */
+  static final int CHUNK_SIZE = 64;
+
+  private final Parser parser;
+  private final Executor executor;
+
+  /**
+   * @param parser compiles the expected strings
+   * @param executor runs the chunks
+   */
+  BatchChecker(Parser parser, Executor executor) {
+    this.parser = Preconditions.checkNotNull(parser);
+    this.executor = Preconditions.checkNotNull(executor);
+  }
+
+  /**
+   * Checks every given request and waits for all of them to complete.
+   *
+   * @param requests to check
+   * @return report with a result for every request
+   */
+  CheckReport checkAll(ImmutableList<CheckRequest> requests) {
+    final CheckResult[] results = new CheckResult[requests.size()];
+    List<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>();
+    for (List<Integer> group : groupByLocale(requests).values()) {
+      for (int start = 0; start < group.size(); start += CHUNK_SIZE) {
+        final List<Integer> chunk =
+            group.subList(start, Math.min(group.size(), start + CHUNK_SIZE));
+        final ImmutableList<CheckRequest> allRequests = requests;
+        FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+          @Override
+          public void run() {
+            for (int index : chunk) {
+              results[index] = check(allRequests.get(index));
+            }
+          }
+        }, null);
+        tasks.add(task);
+        executor.execute(task);
+      }
+    }
+    for (FutureTask<Void> task : tasks) {
+      // Every chunk catches failures of its requests, so this only waits.
+      Futures.getUnchecked(task);
+    }
+    return new CheckReport(requests, ImmutableList.copyOf(Arrays.asList(results)));
+  }
+
+  /** Returns the indexes of the requests of every locale, in the order of first appearance. */
+  private static Map<ULocale, List<Integer>> groupByLocale(List<CheckRequest> requests) {
+    Map<ULocale, List<Integer>> groups = new LinkedHashMap<ULocale, List<Integer>>();
+    for (int i = 0; i < requests.size(); i++) {
+      ULocale locale = requests.get(i).getLocale();
+      List<Integer> group = groups.get(locale);
+      if (group == null) {
+        group = new ArrayList<Integer>();
+        groups.put(locale, group);
+      }
+      group.add(i);
+    }
+    return groups;
+  }
+
+  /**
+   * Checks a single request. Unexpected exceptions of checkers are reported as failures of that
+   * request, so they do not abort the rest of the batch.
+   */
+  private CheckResult check(CheckRequest request) {
+    try {
+      return SanityTemplate.compile(request.getExpected(), parser)
+          .evaluate(request.getActual(), request.getLocale());
+    } catch (RuntimeException e) {
+      return CheckResult.failed(CheckFailure.of(null, e));
+    }
+  }
+}
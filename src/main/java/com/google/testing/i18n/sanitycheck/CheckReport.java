@@ -0,0 +1,101 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * An immutable report of a batch of sanity checks produced by
+ * {@link SanityCheckProcessor#checkAll}. Contains a result for every request, in the same order as
+ * the requests were given, so every failure of the batch is reported rather than only the first
+ * one.
+ */
+public final class CheckReport {
+
+  private final ImmutableList<CheckRequest> requests;
+  private final ImmutableList<CheckResult> results;
+  private final int failureCount;
+
+  CheckReport(ImmutableList<CheckRequest> requests, ImmutableList<CheckResult> results) {
+    Preconditions.checkArgument(requests.size() == results.size(),
+        "Every request should have exactly one result");
+    this.requests = requests;
+    this.results = results;
+    int failures = 0;
+    for (CheckResult result : results) {
+      if (!result.isPassed()) {
+        failures++;
+      }
+    }
+    this.failureCount = failures;
+  }
+
+  /** Returns the checked requests in the order they were given. */
+  public ImmutableList<CheckRequest> getRequests() {
+    return requests;
+  }
+
+  /** Returns the result of every request, in the same order as {@link #getRequests}. */
+  public ImmutableList<CheckResult> getResults() {
+    return results;
+  }
+
+  /** Returns true if every request passed. */
+  public boolean isPassed() {
+    return failureCount == 0;
+  }
+
+  /** Returns the number of failed requests. */
+  public int getFailureCount() {
+    return failureCount;
+  }
+
+  /** Returns the failed requests in the order they were given. */
+  public ImmutableList<CheckRequest> getFailedRequests() {
+    ImmutableList.Builder<CheckRequest> failed = ImmutableList.builder();
+    for (int i = 0; i < results.size(); i++) {
+      if (!results.get(i).isPassed()) {
+        failed.add(requests.get(i));
+      }
+    }
+    return failed.build();
+  }
+
+  /**
+   * Throws an {@link AssertionError} that lists every failure if any request failed.
+   *
+   * @throws AssertionError with a message that describes every failed request
+   */
+  public void assertPassed() throws AssertionError {
+    if (!isPassed()) {
+      throw new AssertionError(toString());
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder report = new StringBuilder();
+    report.append(failureCount).append(" of ").append(results.size()).append(" checks failed.");
+    for (int i = 0; i < results.size(); i++) {
+      CheckResult result = results.get(i);
+      if (!result.isPassed()) {
+        report.append('\n').append(requests.get(i)).append(": ").append(result.getMessage());
+      }
+    }
+    return report.toString();
+  }
+}
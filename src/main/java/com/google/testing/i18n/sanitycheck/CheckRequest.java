@@ -0,0 +1,96 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+
+import com.ibm.icu.util.ULocale;
+
+import java.util.Locale;
+
+import javax.annotation.Nullable;
+
+/**
+ * An immutable (expected, actual, locale) triple to be validated by
+ * {@link SanityCheckProcessor#checkAll}.
+ */
+public final class CheckRequest {
+
+  private final String expected;
+  private final String actual;
+  private final ULocale locale;
+
+  private CheckRequest(String expected, String actual, ULocale locale) {
+    this.expected = Preconditions.checkNotNull(expected);
+    this.actual = Preconditions.checkNotNull(actual);
+    this.locale = Preconditions.checkNotNull(locale);
+  }
+
+  /**
+   * Creates a request.
+   *
+   * @param expected pattern-based string
+   * @param actual string that you want to test
+   * @param locale to test with. If null, then default en_US locale is used
+   */
+  public static CheckRequest of(String expected, String actual, @Nullable ULocale locale) {
+    return new CheckRequest(expected, actual, locale != null ? locale : ULocale.US);
+  }
+
+  /**
+   * Creates a request.
+   *
+   * @param expected pattern-based string
+   * @param actual string that you want to test
+   * @param locale to test with. If null, then default en_US locale is used
+   */
+  public static CheckRequest of(String expected, String actual, @Nullable Locale locale) {
+    return of(expected, actual, ULocale.forLocale(locale));
+  }
+
+  public String getExpected() {
+    return expected;
+  }
+
+  public String getActual() {
+    return actual;
+  }
+
+  public ULocale getLocale() {
+    return locale;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof CheckRequest)) {
+      return false;
+    }
+    CheckRequest other = (CheckRequest) obj;
+    return expected.equals(other.expected) && actual.equals(other.actual)
+        && locale.equals(other.locale);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(expected, actual, locale);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("\"%s\" against \"%s\" for %s", actual, expected, locale);
+  }
+}
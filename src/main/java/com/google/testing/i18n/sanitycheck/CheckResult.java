@@ -0,0 +1,120 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck;
+
+import com.google.common.base.Preconditions;
+import com.google.testing.i18n.sanitycheck.checkers.CheckFailure;
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import javax.annotation.Nullable;
+
+/**
+ * An immutable result of a sanity check. Produced by {@link SanityCheckProcessor#check} and
+ * {@link SanityTemplate#evaluate} without throwing, so large batches of strings could be validated
+ * without paying for an {@link AssertionError} per failing string. The failure message is rendered
+ * only when {@link #getMessage} is called.
+ */
+public final class CheckResult {
+
+  /** Index reported when there is no failed placeholder. */
+  public static final int NO_PLACEHOLDER = -1;
+
+  private static final CheckResult PASSED = new CheckResult(NO_PLACEHOLDER, null, null);
+
+  private final int failedPlaceholderIndex;
+  @Nullable
+  private final Placeholder failedPlaceholder;
+  @Nullable
+  private final CheckFailure failure;
+
+  private CheckResult(int failedPlaceholderIndex, @Nullable Placeholder failedPlaceholder,
+      @Nullable CheckFailure failure) {
+    this.failedPlaceholderIndex = failedPlaceholderIndex;
+    this.failedPlaceholder = failedPlaceholder;
+    this.failure = failure;
+  }
+
+  /** Returns the result of a passed check. */
+  static CheckResult passed() {
+    return PASSED;
+  }
+
+  /**
+   * Returns the result of a check that failed without a known placeholder, e.g. because the actual
+   * string does not satisfy the static text of the expected one.
+   */
+  static CheckResult failed(CheckFailure failure) {
+    return new CheckResult(NO_PLACEHOLDER, null, Preconditions.checkNotNull(failure));
+  }
+
+  /**
+   * Returns the result of a check failed by a placeholder.
+   *
+   * @param index of the failed placeholder among the placeholders extracted from the actual string
+   * @param placeholder that failed, with its actual content
+   * @param failure reported by the checker
+   */
+  static CheckResult failed(int index, Placeholder placeholder, CheckFailure failure) {
+    Preconditions.checkArgument(index >= 0);
+    return new CheckResult(index, Preconditions.checkNotNull(placeholder),
+        Preconditions.checkNotNull(failure));
+  }
+
+  /** Returns true if the actual string passed the check. */
+  public boolean isPassed() {
+    return failure == null;
+  }
+
+  /**
+   * Returns the index of the failed placeholder among the placeholders extracted from the actual
+   * string, or {@link #NO_PLACEHOLDER} if the check passed or the actual string does not satisfy
+   * the static text of the expected one.
+   */
+  public int getFailedPlaceholderIndex() {
+    return failedPlaceholderIndex;
+  }
+
+  /** Returns the failed placeholder with its actual content, if any. */
+  @Nullable
+  public Placeholder getFailedPlaceholder() {
+    return failedPlaceholder;
+  }
+
+  /** Renders the failure message, or returns null if the check passed. */
+  @Nullable
+  public String getMessage() {
+    return failure != null ? failure.getMessage() : null;
+  }
+
+  /**
+   * Throws an {@link AssertionError} if the check failed.
+   *
+   * @throws AssertionError with the failure message
+   */
+  public void assertPassed() throws AssertionError {
+    if (failure != null) {
+      throw failure.toAssertionError();
+    }
+  }
+
+  @Override
+  public String toString() {
+    if (failure == null) {
+      return "CheckResult{passed}";
+    }
+    return "CheckResult{failed at " + failedPlaceholderIndex + ": " + failure.getMessage() + "}";
+  }
+}
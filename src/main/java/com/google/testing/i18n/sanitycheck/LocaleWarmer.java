@@ -0,0 +1,118 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck;
+
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.testing.i18n.sanitycheck.checkers.Checker;
+import com.google.testing.i18n.sanitycheck.checkers.Warmable;
+
+import com.ibm.icu.util.ULocale;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An object that prepares the {@link Warmable} checkers for a set of locales. Every locale is
+ * warmed up by a separate task, so locales are prepared in parallel.
+ */
+final class LocaleWarmer {
+
+  private static final Logger logger = Logger.getLogger(LocaleWarmer.class.getCanonicalName());
+
+  private final ImmutableList<Warmable> warmables;
+  private final Executor executor;
+
+  /**
+   * @param checkers to warm up. Checkers that are not {@link Warmable} are skipped
+   * @param executor runs the warm-up tasks
+   */
+  LocaleWarmer(Collection<? extends Checker> checkers, Executor executor) {
+    ImmutableList.Builder<Warmable> builder = ImmutableList.builder();
+    for (Checker checker : checkers) {
+      if (checker instanceof Warmable) {
+        builder.add((Warmable) checker);
+      }
+    }
+    this.warmables = builder.build();
+    this.executor = Preconditions.checkNotNull(executor);
+  }
+
+  /**
+   * Starts warming up given locales.
+   *
+   * @param locales to prepare the checkers for
+   * @return future of the time in milliseconds every locale took, in the order of the given
+   *         collection
+   */
+  ListenableFuture<ImmutableMap<ULocale, Long>> warmUp(Collection<ULocale> locales) {
+    final ImmutableList<ULocale> distinctLocales = ImmutableSet.copyOf(locales).asList();
+    List<ListenableFuture<Long>> timings = new ArrayList<ListenableFuture<Long>>();
+    for (final ULocale locale : distinctLocales) {
+      ListenableFutureTask<Long> task = ListenableFutureTask.create(new Callable<Long>() {
+        @Override
+        public Long call() {
+          return warmUp(locale);
+        }
+      });
+      timings.add(task);
+      executor.execute(task);
+    }
+    return Futures.transform(Futures.allAsList(timings),
+        new Function<List<Long>, ImmutableMap<ULocale, Long>>() {
+          @Override
+          public ImmutableMap<ULocale, Long> apply(List<Long> millis) {
+            ImmutableMap.Builder<ULocale, Long> result = ImmutableMap.builder();
+            for (int i = 0; i < distinctLocales.size(); i++) {
+              result.put(distinctLocales.get(i), millis.get(i));
+            }
+            return result.build();
+          }
+        });
+  }
+
+  /**
+   * Warms up every checker for a given locale on the calling thread. A checker that fails to warm
+   * up is logged and skipped, its first check will just be slow.
+   *
+   * @return time in milliseconds the locale took
+   */
+  private long warmUp(ULocale locale) {
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    for (Warmable warmable : warmables) {
+      try {
+        warmable.warmUp(locale);
+      } catch (RuntimeException e) {
+        logger.log(Level.WARNING, String.format("Could not warm up %s for %s",
+            warmable.getClass().getSimpleName(), locale), e);
+      }
+    }
+    return stopwatch.elapsed(TimeUnit.MILLISECONDS);
+  }
+}
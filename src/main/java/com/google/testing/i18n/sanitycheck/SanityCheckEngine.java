@@ -0,0 +1,328 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.testing.i18n.sanitycheck.checkers.BuiltInCheckerProvider;
+import com.google.testing.i18n.sanitycheck.checkers.CandidateOrder;
+import com.google.testing.i18n.sanitycheck.checkers.CheckerRegistry;
+import com.google.testing.i18n.sanitycheck.metrics.MetricsSink;
+import com.google.testing.i18n.sanitycheck.parser.Parser;
+
+import com.ibm.icu.util.ULocale;
+
+import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.annotation.Nullable;
+
+/**
+ * An independent instance of the sanity check machinery. Every engine owns its cache of compiled
+ * expected strings and, unless it is given a {@link CheckerRegistry}, its checkers with their
+ * caches of ICU formatters. Test suites that share a JVM could therefore tune memory and
+ * concurrency separately, and start cold or warm:
+ * <p>
+ * <code>
+ * SanityCheckEngine engine = SanityCheckEngine.builder()
+ *     .templateCacheSize(64)
+ *     .defaultLocale(ULocale.GERMANY)
+ *     .build();
+ * engine.check("Heute ist {date}", myGeneratorMethod()).assertPassed();
+ * </code>
+ * <p>
+ * The static methods of {@link SanityCheckProcessor} delegate to a default engine configured by
+ * system properties. Engine is thread-safe.
+ */
+public final class SanityCheckEngine {
+
+  /** Lazily created executor shared by the engines that are not given one. */
+  private static final class DefaultExecutorHolder {
+    static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(),
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("i18n-sanitycheck-%d").build());
+  }
+
+  private final Parser parser;
+  @Nullable
+  private final Executor executor;
+  @Nullable
+  private final ForkJoinPool placeholderPool;
+  private final ULocale defaultLocale;
+
+  private SanityCheckEngine(Builder builder) {
+    CheckerRegistry registry = builder.checkerRegistry;
+    if (registry == null) {
+      registry = CheckerRegistry.load(SanityCheckEngine.class.getClassLoader(),
+          new BuiltInCheckerProvider(builder.dateFormatCacheSize, builder.numberFormatPoolSize,
+              builder.metrics, builder.candidateOrder));
+    }
+    this.parser = new Parser(builder.templateCacheSize, builder.extractionEngine, registry,
+        builder.metrics);
+    this.executor = builder.executor;
+    this.placeholderPool = builder.placeholderPool;
+    this.defaultLocale = builder.defaultLocale;
+  }
+
+  /** Returns a new builder with the default settings. */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Returns the registry with the checkers of this engine. */
+  public CheckerRegistry getCheckerRegistry() {
+    return parser.getCheckerRegistry();
+  }
+
+  /** Returns the sink this engine reports its measurements to. */
+  public MetricsSink getMetricsSink() {
+    return parser.getMetricsSink();
+  }
+
+  /** Returns the locale of the checks that are given no locale. */
+  public ULocale getDefaultLocale() {
+    return defaultLocale;
+  }
+
+  /** Returns the statistics of the cache of compiled expected strings of this engine. */
+  public CacheStats getTemplateCacheStats() {
+    return parser.getTemplateCacheStats();
+  }
+
+  /** Returns the parser that compiles the expected strings of this engine. */
+  Parser getParser() {
+    return parser;
+  }
+
+  /**
+   * Compiles a given {@code expected} string by means of this engine. See
+   * {@link SanityTemplate#compile}.
+   *
+   * @param expected pattern-based string
+   * @return instance of {@link SanityTemplate}
+   */
+  public SanityTemplate compile(String expected) {
+    return SanityTemplate.compile(expected, parser, placeholderPool);
+  }
+
+  /**
+   * Checks a given {@code actual} value against a given {@code expected} pattern for the default
+   * locale of this engine without throwing.
+   *
+   * @param expected pattern-based string
+   * @param actual string that you want to test
+   * @return result of the check
+   */
+  public CheckResult check(String expected, String actual) {
+    return check(null, expected, actual, null);
+  }
+
+  /**
+   * Checks a given {@code actual} value against a given {@code expected} pattern for a given
+   * locale without throwing.
+   *
+   * @param expected pattern-based string
+   * @param actual string that you want to test
+   * @param locale to test with. If null, then the default locale of this engine is used
+   * @return result of the check
+   */
+  public CheckResult check(String expected, String actual, @Nullable ULocale locale) {
+    return check(null, expected, actual, locale);
+  }
+
+  /**
+   * Checks a given {@code actual} value against a given {@code expected} pattern for a given
+   * locale without throwing.
+   *
+   * @param message custom message to be reported instead of the automatically produced one
+   * @param expected pattern-based string
+   * @param actual string that you want to test
+   * @param locale to test with. If null, then the default locale of this engine is used
+   * @return result of the check
+   */
+  public CheckResult check(@Nullable String message, String expected, String actual,
+      @Nullable ULocale locale) {
+    Preconditions.checkNotNull(expected);
+    Preconditions.checkNotNull(actual);
+    return compile(expected).evaluate(actual, locale != null ? locale : defaultLocale, message);
+  }
+
+  /**
+   * Checks every given request by means of the executor of this engine and waits for all of them.
+   * See {@link SanityCheckProcessor#checkAll(Collection, Executor)}.
+   *
+   * @param requests to check
+   * @return report with a result for every request, in the order of the given collection
+   */
+  public CheckReport checkAll(Collection<CheckRequest> requests) {
+    return new BatchChecker(parser, getExecutor()).checkAll(ImmutableList.copyOf(requests));
+  }
+
+  /**
+   * Prepares the checkers of this engine for given locales and waits for all of them. See
+   * {@link SanityCheckProcessor#warmUp}.
+   *
+   * @param locales to prepare the checkers for
+   * @return time in milliseconds every locale took
+   */
+  public ImmutableMap<ULocale, Long> warmUp(Collection<ULocale> locales) {
+    return Futures.getUnchecked(warmUpInBackground(locales));
+  }
+
+  /**
+   * Starts preparing the checkers of this engine for given locales by means of the executor of
+   * this engine and returns immediately.
+   *
+   * @param locales to prepare the checkers for
+   * @return future of the time in milliseconds every locale took
+   */
+  public ListenableFuture<ImmutableMap<ULocale, Long>> warmUpInBackground(
+      Collection<ULocale> locales) {
+    return new LocaleWarmer(getCheckerRegistry().getAll(), getExecutor()).warmUp(locales);
+  }
+
+  private Executor getExecutor() {
+    return executor != null ? executor : DefaultExecutorHolder.EXECUTOR;
+  }
+
+  /** A builder of {@link SanityCheckEngine}. Every setting has a default. */
+  public static final class Builder {
+
+    private int templateCacheSize = Parser.DEFAULT_TEMPLATE_CACHE_SIZE;
+    private Parser.ExtractionEngine extractionEngine = Parser.ExtractionEngine.SEGMENTS;
+    private int dateFormatCacheSize = BuiltInCheckerProvider.DEFAULT_DATE_FORMAT_CACHE_SIZE;
+    private int numberFormatPoolSize = BuiltInCheckerProvider.DEFAULT_NUMBER_FORMAT_POOL_SIZE;
+    @Nullable
+    private CheckerRegistry checkerRegistry;
+    @Nullable
+    private Executor executor;
+    @Nullable
+    private ForkJoinPool placeholderPool;
+    private ULocale defaultLocale = ULocale.US;
+    private MetricsSink metrics = MetricsSink.NO_OP;
+    private CandidateOrder candidateOrder = new CandidateOrder();
+
+    private Builder() {}
+
+    /**
+     * Sets the maximum number of compiled expected strings to keep. Zero disables caching.
+     * Defaults to {@link Parser#DEFAULT_TEMPLATE_CACHE_SIZE}.
+     */
+    public Builder templateCacheSize(int templateCacheSize) {
+      Preconditions.checkArgument(templateCacheSize >= 0,
+          "templateCacheSize must not be negative");
+      this.templateCacheSize = templateCacheSize;
+      return this;
+    }
+
+    /** Sets the extraction engine. Defaults to {@link Parser.ExtractionEngine#SEGMENTS}. */
+    public Builder extractionEngine(Parser.ExtractionEngine extractionEngine) {
+      this.extractionEngine = Preconditions.checkNotNull(extractionEngine);
+      return this;
+    }
+
+    /**
+     * Sets the number of date format candidate lists kept by each thread for the built-in
+     * checkers. Ignored if a {@link #checkerRegistry} is given.
+     */
+    public Builder dateFormatCacheSize(int dateFormatCacheSize) {
+      Preconditions.checkArgument(dateFormatCacheSize > 0, "dateFormatCacheSize must be positive");
+      this.dateFormatCacheSize = dateFormatCacheSize;
+      return this;
+    }
+
+    /**
+     * Sets the number of idle number format candidate lists kept for every locale for the
+     * built-in checkers. Ignored if a {@link #checkerRegistry} is given.
+     */
+    public Builder numberFormatPoolSize(int numberFormatPoolSize) {
+      Preconditions.checkArgument(numberFormatPoolSize > 0,
+          "numberFormatPoolSize must be positive");
+      this.numberFormatPoolSize = numberFormatPoolSize;
+      return this;
+    }
+
+    /**
+     * Sets the registry to look checkers up in, e.g. {@link CheckerRegistry#getDefault} to share
+     * checkers and their caches with other engines. By default, every engine loads a registry of
+     * its own.
+     */
+    public Builder checkerRegistry(CheckerRegistry checkerRegistry) {
+      this.checkerRegistry = Preconditions.checkNotNull(checkerRegistry);
+      return this;
+    }
+
+    /**
+     * Sets the executor of {@link SanityCheckEngine#checkAll} and
+     * {@link SanityCheckEngine#warmUp}. Defaults to a shared pool of daemon threads, one per
+     * available processor.
+     */
+    public Builder executor(Executor executor) {
+      this.executor = Preconditions.checkNotNull(executor);
+      return this;
+    }
+
+    /**
+     * Sets the pool that checks the placeholders of an actual string concurrently. See
+     * {@link SanityTemplate#withPlaceholderPool}. If null, which is the default, placeholders are
+     * checked on the calling thread.
+     */
+    public Builder placeholderPool(@Nullable ForkJoinPool placeholderPool) {
+      this.placeholderPool = placeholderPool;
+      return this;
+    }
+
+    /** Sets the locale of the checks that are given no locale. Defaults to en_US. */
+    public Builder defaultLocale(ULocale defaultLocale) {
+      this.defaultLocale = Preconditions.checkNotNull(defaultLocale);
+      return this;
+    }
+
+    /**
+     * Sets the sink of the check and parse latencies, the number of tried candidate formats and
+     * the cache lookups, e.g. a {@link com.google.testing.i18n.sanitycheck.metrics.StripedMetrics}.
+     * The built-in checkers only report to it if the engine creates its own
+     * {@link #checkerRegistry}. Defaults to {@link MetricsSink#NO_OP}, which measures nothing.
+     */
+    public Builder metrics(MetricsSink metrics) {
+      this.metrics = Preconditions.checkNotNull(metrics);
+      return this;
+    }
+
+    /**
+     * Sets the order the built-in checkers try their candidate formats in, e.g. one loaded from
+     * the previous run by means of {@link CandidateOrder#load(java.io.File)}. Ignored if a
+     * {@link #checkerRegistry} is given. By default, every engine learns the order from scratch.
+     */
+    public Builder candidateOrder(CandidateOrder candidateOrder) {
+      this.candidateOrder = Preconditions.checkNotNull(candidateOrder);
+      return this;
+    }
+
+    /** Creates a new engine with the settings of this builder. */
+    public SanityCheckEngine build() {
+      return new SanityCheckEngine(this);
+    }
+  }
+}
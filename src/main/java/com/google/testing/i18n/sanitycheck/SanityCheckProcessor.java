@@ -15,16 +15,24 @@
  */
 package com.google.testing.i18n.sanitycheck;
 
-import com.google.common.base.Preconditions;
-import com.google.testing.i18n.sanitycheck.checkers.Checker;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.testing.i18n.sanitycheck.checkers.CandidateOrder;
+import com.google.testing.i18n.sanitycheck.checkers.CheckerRegistry;
 import com.google.testing.i18n.sanitycheck.parser.Parser;
-import com.google.testing.i18n.sanitycheck.parser.ParserException;
-import com.google.testing.i18n.sanitycheck.parser.Placeholder;
 
 import com.ibm.icu.util.ULocale;
 
-import java.util.List;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
 import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.annotation.Nullable;
 
@@ -36,14 +44,225 @@ import javax.annotation.Nullable;
  * String myOutputString = myGeneratorMethod();   // method that generates "Today is 11/30/05"
  * SanityCheckProcessor.assertI18nSanityCheck("Today is {datetime}", myOutputString, ULocale.US);
  * </code>
+ * <p>
+ * If the same expected string is checked in a hot loop, consider compiling it once by means of
+ * {@link SanityTemplate#compile}. To validate many strings and collect the failures rather than
+ * stop at the first one, use the {@code check} methods, which return a {@link CheckResult} instead
+ * of throwing. Test suites that need caches or settings of their own could build a
+ * {@link SanityCheckEngine} instead.
  */
 public final class SanityCheckProcessor {
 
-  private static final Parser PARSER = new Parser();
+  /**
+   * Name of the system property that sets the number of compiled expected strings kept in memory.
+   * Defaults to {@link Parser#DEFAULT_TEMPLATE_CACHE_SIZE}.
+   */
+  public static final String TEMPLATE_CACHE_SIZE_PROPERTY = "i18n.sanitycheck.templateCacheSize";
+
+  /**
+   * Name of the system property that selects the {@link Parser.ExtractionEngine} by name, e.g.
+   * "REGEX" to fall back to regular expressions. Defaults to
+   * {@link Parser.ExtractionEngine#SEGMENTS}, which is also used, with a warning, for an unknown
+   * name.
+   */
+  public static final String EXTRACTION_ENGINE_PROPERTY = "i18n.sanitycheck.extractionEngine";
+
+  /**
+   * Name of the boolean system property that makes the static methods check the placeholders of
+   * an actual string concurrently on {@link ForkJoinPool#commonPool}. See
+   * {@link SanityTemplate#withPlaceholderPool}. Disabled by default.
+   */
+  public static final String CONCURRENT_PLACEHOLDERS_PROPERTY =
+      "i18n.sanitycheck.concurrentPlaceholders";
+
+  /**
+   * Name of the system property with the path of a file that keeps the learned order of candidate
+   * formats between runs. The order of {@link CandidateOrder#getDefault} is loaded from the file,
+   * if it exists, and saved to it when the JVM exits. Not set by default.
+   */
+  public static final String CANDIDATE_ORDER_FILE_PROPERTY = "i18n.sanitycheck.candidateOrderFile";
+
+  private static final Logger logger =
+      Logger.getLogger(SanityCheckProcessor.class.getCanonicalName());
+
+  static {
+    String candidateOrderFile = System.getProperty(CANDIDATE_ORDER_FILE_PROPERTY);
+    if (candidateOrderFile != null) {
+      persistCandidateOrder(new File(candidateOrderFile));
+    }
+  }
+
+  /** Engine all static methods delegate to. */
+  private static final SanityCheckEngine DEFAULT_ENGINE = SanityCheckEngine.builder()
+      .templateCacheSize(
+          Integer.getInteger(TEMPLATE_CACHE_SIZE_PROPERTY, Parser.DEFAULT_TEMPLATE_CACHE_SIZE))
+      .extractionEngine(parseExtractionEngine(System.getProperty(EXTRACTION_ENGINE_PROPERTY)))
+      .placeholderPool(
+          Boolean.getBoolean(CONCURRENT_PLACEHOLDERS_PROPERTY) ? ForkJoinPool.commonPool() : null)
+      .checkerRegistry(CheckerRegistry.getDefault())
+      .build();
 
   /** Do not instantiate */
   private SanityCheckProcessor() {}
 
+  /**
+   * Returns the extraction engine with a given case-insensitive name. A typo in a system property
+   * must not break the class initialization, so an unknown name is logged and replaced with the
+   * default engine.
+   *
+   * @param name of the engine, null for the default one
+   */
+  static Parser.ExtractionEngine parseExtractionEngine(@Nullable String name) {
+    if (name == null) {
+      return Parser.ExtractionEngine.SEGMENTS;
+    }
+    try {
+      return Parser.ExtractionEngine.valueOf(name.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      logger.log(Level.WARNING, "Unknown extraction engine \"" + name + "\" in the "
+          + EXTRACTION_ENGINE_PROPERTY + " property, using "
+          + Parser.ExtractionEngine.SEGMENTS);
+      return Parser.ExtractionEngine.SEGMENTS;
+    }
+  }
+
+  /** Loads the default candidate order from a given file and saves it back on exit. */
+  private static void persistCandidateOrder(final File file) {
+    try {
+      CandidateOrder.getDefault().load(file);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Could not load the candidate order from " + file, e);
+    }
+    Runtime.getRuntime().addShutdownHook(new Thread("i18n-sanitycheck-candidate-order") {
+      @Override
+      public void run() {
+        try {
+          CandidateOrder.getDefault().save(file);
+        } catch (IOException e) {
+          logger.log(Level.WARNING, "Could not save the candidate order to " + file, e);
+        }
+      }
+    });
+  }
+
+  /**
+   * Returns the engine the static methods delegate to. Its checkers are the ones of
+   * {@link CheckerRegistry#getDefault}.
+   */
+  public static SanityCheckEngine getDefaultEngine() {
+    return DEFAULT_ENGINE;
+  }
+
+  /**
+   * Returns the statistics of the cache of compiled expected strings shared by all assertions.
+   */
+  public static CacheStats getTemplateCacheStats() {
+    return DEFAULT_ENGINE.getTemplateCacheStats();
+  }
+
+  /**
+   * Checks a given {@code actual} value against a given {@code expected} pattern for the default
+   * en_US locale without throwing.
+   *
+   * @param expected pattern-based string
+   * @param actual string that you want to test
+   * @return result of the check
+   */
+  public static CheckResult check(String expected, String actual) {
+    return check(expected, actual, (ULocale) null);
+  }
+
+  /**
+   * Checks a given {@code actual} value against a given {@code expected} pattern for a given
+   * locale without throwing.
+   *
+   * @param expected pattern-based string
+   * @param actual string that you want to test
+   * @param locale to test with. If null, then default en_US locale is used
+   * @return result of the check
+   */
+  public static CheckResult check(String expected, String actual, @Nullable Locale locale) {
+    return check(expected, actual, ULocale.forLocale(locale));
+  }
+
+  /**
+   * Checks a given {@code actual} value against a given {@code expected} pattern for a given
+   * locale without throwing.
+   *
+   * @param expected pattern-based string
+   * @param actual string that you want to test
+   * @param locale to test with. If null, then default en_US locale is used
+   * @return result of the check
+   */
+  public static CheckResult check(String expected, String actual, @Nullable ULocale locale) {
+    return check(null, expected, actual, locale);
+  }
+
+  /**
+   * Checks a given {@code actual} value against a given {@code expected} pattern for a given
+   * locale without throwing.
+   *
+   * @param message custom message to be reported instead of the automatically produced one
+   * @param expected pattern-based string
+   * @param actual string that you want to test
+   * @param locale to test with. If null, then default en_US locale is used
+   * @return result of the check
+   */
+  public static CheckResult check(@Nullable String message, String expected, String actual,
+      @Nullable ULocale locale) {
+    return DEFAULT_ENGINE.check(message, expected, actual, locale);
+  }
+
+  /**
+   * Checks every given request on a shared pool of daemon threads, one per available processor.
+   * See {@link #checkAll(Collection, Executor)}.
+   *
+   * @param requests to check
+   * @return report with a result for every request
+   */
+  public static CheckReport checkAll(Collection<CheckRequest> requests) {
+    return DEFAULT_ENGINE.checkAll(requests);
+  }
+
+  /**
+   * Checks every given request by means of a given executor and waits for all of them. Requests of
+   * the same locale are checked by the same task in chunks, so warmed up ICU formatters are reused.
+   * Unlike the assert methods, this does not stop at the first failure.
+   *
+   * @param requests to check
+   * @param executor runs the checks. E.g. {@code MoreExecutors.directExecutor()} checks
+   *        everything on the calling thread
+   * @return report with a result for every request, in the order of the given collection
+   */
+  public static CheckReport checkAll(Collection<CheckRequest> requests, Executor executor) {
+    return new BatchChecker(DEFAULT_ENGINE.getParser(), executor)
+        .checkAll(ImmutableList.copyOf(requests));
+  }
+
+  /**
+   * Prepares the checkers for given locales, so the first assertion for a locale does not pay for
+   * loading ICU data. Locales are warmed up in parallel on the same pool as
+   * {@link #checkAll(Collection)}, and this method waits for all of them.
+   *
+   * @param locales to prepare the checkers for
+   * @return time in milliseconds every locale took
+   */
+  public static ImmutableMap<ULocale, Long> warmUp(Collection<ULocale> locales) {
+    return DEFAULT_ENGINE.warmUp(locales);
+  }
+
+  /**
+   * Starts preparing the checkers for given locales in the background and returns immediately.
+   * See {@link #warmUp}.
+   *
+   * @param locales to prepare the checkers for
+   * @return future of the time in milliseconds every locale took
+   */
+  public static ListenableFuture<ImmutableMap<ULocale, Long>> warmUpInBackground(
+      Collection<ULocale> locales) {
+    return DEFAULT_ENGINE.warmUpInBackground(locales);
+  }
+
   /**
    * Asserts that a given {@code actual} value satisfies a given {@code expected} pattern for a
    * given locale.
@@ -108,27 +327,6 @@ public final class SanityCheckProcessor {
    */
   public static void assertI18nSanityCheck(@Nullable String message, String expected, String actual,
       @Nullable ULocale locale) {
-    Preconditions.checkNotNull(expected);
-    Preconditions.checkNotNull(actual);
-    locale = locale != null ? locale : ULocale.US;
-    try {
-      // Parses an original text with respect to the expected pattern and returns the list of the
-      // Placeholder entities as a result.
-      List<Placeholder> parsedPattern = PARSER.parse(actual, expected);
-      // Walks through all parsed tokens and performs sanity check of each one of them.
-      for (Placeholder placeholder : parsedPattern) {
-        ULocale placeholderLocale = locale;
-        if (placeholder.getLocale() != null) {
-          placeholderLocale = new ULocale(placeholder.getLocale());
-        }
-        Checker.CHECKERS.get(placeholder.getName()).check(placeholder, placeholderLocale, message);
-      }
-    } catch (ParserException e) {
-      if (message.isEmpty()) {
-        throw new AssertionError(e.getMessage(), e);
-      } else {
-        throw new AssertionError(message, e);
-      }
-    }
+    check(message, expected, actual, locale).assertPassed();
   }
 }
@@ -0,0 +1,300 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.testing.i18n.sanitycheck.checkers.CheckFailure;
+import com.google.testing.i18n.sanitycheck.checkers.Checker;
+import com.google.testing.i18n.sanitycheck.checkers.EvaluatingChecker;
+import com.google.testing.i18n.sanitycheck.metrics.MetricsSink;
+import com.google.testing.i18n.sanitycheck.parser.CompiledTemplate;
+import com.google.testing.i18n.sanitycheck.parser.Parser;
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import com.ibm.icu.util.ULocale;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+/**
+ * An expected string that is compiled once and then checked against many actual strings. All
+ * template work, like placeholder extraction, parsing of placeholder params and lookup of the
+ * related checkers, is done by {@link #compile}. Instances are immutable and thread-safe, so they
+ * could be kept in static fields and shared by all test threads:
+ * <p>
+ * <code>
+ * private static final SanityTemplate GREETING = SanityTemplate.compile("Today is {date}");
+ * ...
+ * GREETING.check(myGeneratorMethod(), ULocale.US);
+ * </code>
+ * <p>
+ * Placeholders are checked one after another on the calling thread. A template returned by
+ * {@link #withPlaceholderPool} checks the placeholders of every actual string concurrently instead,
+ * which cuts the latency of strings with several expensive placeholders, like {datetime} or
+ * {period}.
+ */
+public final class SanityTemplate {
+
+  private final Parser parser;
+  private final CompiledTemplate template;
+  private final ImmutableMap<String, Checker> checkers;
+  private final ImmutableMap<String, ULocale> placeholderLocales;
+  /** Pool that checks placeholders concurrently, null to check them on the calling thread. */
+  @Nullable
+  private final ForkJoinPool placeholderPool;
+
+  private SanityTemplate(Parser parser, CompiledTemplate template,
+      @Nullable ForkJoinPool placeholderPool) {
+    this.parser = Preconditions.checkNotNull(parser);
+    this.template = Preconditions.checkNotNull(template);
+    Map<String, Checker> boundCheckers = new HashMap<String, Checker>();
+    Map<String, ULocale> locales = new HashMap<String, ULocale>();
+    for (Placeholder placeholder : template.getPlaceholders()) {
+      boundCheckers.put(placeholder.getName(),
+          parser.getCheckerRegistry().get(placeholder.getName()));
+      if (placeholder.getLocale() != null) {
+        locales.put(placeholder.getLocale(), new ULocale(placeholder.getLocale()));
+      }
+    }
+    this.checkers = ImmutableMap.copyOf(boundCheckers);
+    this.placeholderLocales = ImmutableMap.copyOf(locales);
+    this.placeholderPool = placeholderPool;
+  }
+
+  private SanityTemplate(SanityTemplate original, @Nullable ForkJoinPool placeholderPool) {
+    this.parser = original.parser;
+    this.template = original.template;
+    this.checkers = original.checkers;
+    this.placeholderLocales = original.placeholderLocales;
+    this.placeholderPool = placeholderPool;
+  }
+
+  /**
+   * Compiles a given {@code expected} string.
+   *
+   * @param expected pattern-based string
+   * @return instance of {@link SanityTemplate}
+   */
+  public static SanityTemplate compile(String expected) {
+    return compile(expected, SanityCheckProcessor.getDefaultEngine().getParser());
+  }
+
+  /**
+   * Compiles a given {@code expected} string by means of a given parser.
+   *
+   * @param expected pattern-based string
+   * @param parser to compile and later parse with
+   * @return instance of {@link SanityTemplate}
+   */
+  static SanityTemplate compile(String expected, Parser parser) {
+    return compile(expected, parser, null);
+  }
+
+  /**
+   * Compiles a given {@code expected} string by means of a given parser.
+   *
+   * @param expected pattern-based string
+   * @param parser to compile and later parse with
+   * @param placeholderPool checks placeholders concurrently. If null, they are checked on the
+   *        calling thread
+   * @return instance of {@link SanityTemplate}
+   */
+  static SanityTemplate compile(String expected, Parser parser,
+      @Nullable ForkJoinPool placeholderPool) {
+    Preconditions.checkNotNull(expected);
+    return new SanityTemplate(parser, parser.compile(expected), placeholderPool);
+  }
+
+  /**
+   * Returns a template that checks the placeholders of an actual string concurrently by means of
+   * a given pool. As soon as a placeholder fails, the placeholders after it that have not started
+   * yet are cancelled. The reported failure is always the first failed placeholder in the order
+   * of the expected string, like with sequential checks.
+   *
+   * @param placeholderPool checks placeholders, e.g. {@link ForkJoinPool#commonPool}. If null,
+   *        placeholders are checked one after another on the calling thread
+   * @return template that shares all compiled state with this one
+   */
+  public SanityTemplate withPlaceholderPool(@Nullable ForkJoinPool placeholderPool) {
+    return new SanityTemplate(this, placeholderPool);
+  }
+
+  /** Returns the expected string this template was compiled from. */
+  public String getExpected() {
+    return template.getExpected();
+  }
+
+  /**
+   * Asserts that a given {@code actual} value satisfies this template for a given locale.
+   *
+   * @param actual string that you want to test
+   * @param locale to test with. If null, then default en_US locale is used
+   */
+  public void check(String actual, @Nullable ULocale locale) {
+    check(actual, locale, null);
+  }
+
+  /**
+   * Asserts that a given {@code actual} value satisfies this template for a given locale.
+   *
+   * @param actual string that you want to test
+   * @param locale to test with. If null, then default en_US locale is used
+   * @param message custom message to be shown instead of the automatically produced one. The
+   *        automatic one would stored in the 'cause' part of the thrown exception
+   */
+  public void check(String actual, @Nullable ULocale locale, @Nullable String message) {
+    evaluate(actual, locale, message).assertPassed();
+  }
+
+  /**
+   * Checks a given {@code actual} value against this template for a given locale without throwing.
+   *
+   * @param actual string that you want to test
+   * @param locale to test with. If null, then default en_US locale is used
+   * @return result of the check
+   */
+  public CheckResult evaluate(String actual, @Nullable ULocale locale) {
+    return evaluate(actual, locale, null);
+  }
+
+  /**
+   * Checks a given {@code actual} value against this template for a given locale without throwing.
+   *
+   * @param actual string that you want to test
+   * @param locale to test with. If null, then default en_US locale is used
+   * @param message custom message to be reported instead of the automatically produced one
+   * @return result of the check
+   */
+  public CheckResult evaluate(String actual, @Nullable ULocale locale, @Nullable String message) {
+    Preconditions.checkNotNull(actual);
+    locale = locale != null ? locale : ULocale.US;
+    // Parses an original text with respect to the compiled pattern and collects the Placeholder
+    // entities as a result.
+    List<Placeholder> parsedPattern =
+        new ArrayList<Placeholder>(template.getPlaceholders().size());
+    CheckFailure parseFailure = parser.tryParse(actual, template, message, parsedPattern);
+    if (parseFailure != null) {
+      return CheckResult.failed(parseFailure);
+    }
+    if (placeholderPool != null && parsedPattern.size() > 1) {
+      return evaluateConcurrently(parsedPattern, locale, message);
+    }
+    // Walks through all parsed tokens and performs sanity check of each one of them.
+    for (int i = 0; i < parsedPattern.size(); i++) {
+      Placeholder placeholder = parsedPattern.get(i);
+      CheckFailure failure = evaluate(placeholder, locale, message);
+      if (failure != null) {
+        return CheckResult.failed(i, placeholder, failure);
+      }
+    }
+    return CheckResult.passed();
+  }
+
+  /**
+   * Checks every given placeholder as a separate task of the placeholder pool. Tasks are joined in
+   * order, so the first failed placeholder is reported. A failure cancels every later task that
+   * has not started yet.
+   */
+  private CheckResult evaluateConcurrently(final List<Placeholder> placeholders,
+      final ULocale locale, @Nullable final String message) {
+    // Index of the first failed placeholder known so far. Tasks after it are not needed.
+    final AtomicInteger firstFailure = new AtomicInteger(Integer.MAX_VALUE);
+    final List<ForkJoinTask<CheckFailure>> tasks =
+        new ArrayList<ForkJoinTask<CheckFailure>>(placeholders.size());
+    for (int i = 0; i < placeholders.size(); i++) {
+      final int index = i;
+      tasks.add(ForkJoinTask.adapt(new Callable<CheckFailure>() {
+        @Override
+        public CheckFailure call() {
+          if (index > firstFailure.get()) {
+            return null;
+          }
+          CheckFailure failure = evaluate(placeholders.get(index), locale, message);
+          if (failure != null) {
+            int known = firstFailure.get();
+            while (index < known && !firstFailure.compareAndSet(known, index)) {
+              known = firstFailure.get();
+            }
+            for (int later = index + 1; later < tasks.size(); later++) {
+              tasks.get(later).cancel(false);
+            }
+          }
+          return failure;
+        }
+      }));
+    }
+    // All tasks are created before the first one starts, so they could safely cancel each other.
+    for (ForkJoinTask<CheckFailure> task : tasks) {
+      placeholderPool.execute(task);
+    }
+    // A task is only cancelled by a failure before it, which is returned before the task is joined.
+    for (int i = 0; i < tasks.size(); i++) {
+      CheckFailure failure = tasks.get(i).join();
+      if (failure != null) {
+        return CheckResult.failed(i, placeholders.get(i), failure);
+      }
+    }
+    return CheckResult.passed();
+  }
+
+  /** Checks a given placeholder by means of its checker and locale. */
+  @Nullable
+  private CheckFailure evaluate(Placeholder placeholder, ULocale locale, @Nullable String message) {
+    ULocale placeholderLocale = locale;
+    if (placeholder.getLocale() != null) {
+      placeholderLocale = placeholderLocales.get(placeholder.getLocale());
+    }
+    Checker checker = checkers.get(placeholder.getName());
+    MetricsSink metrics = parser.getMetricsSink();
+    if (metrics == MetricsSink.NO_OP) {
+      return evaluate(checker, placeholder, placeholderLocale, message);
+    }
+    long start = System.nanoTime();
+    try {
+      return evaluate(checker, placeholder, placeholderLocale, message);
+    } finally {
+      metrics.recordCheckLatency(placeholder.getName(), placeholderLocale,
+          System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Checks a given placeholder by means of a given checker. Checkers that do not implement
+   * {@link EvaluatingChecker} report failures by throwing, which is caught here.
+   */
+  @Nullable
+  private static CheckFailure evaluate(Checker checker, Placeholder placeholder, ULocale locale,
+      @Nullable String message) {
+    if (checker instanceof EvaluatingChecker) {
+      return ((EvaluatingChecker) checker).evaluate(placeholder, locale, message);
+    }
+    try {
+      checker.check(placeholder, locale, message);
+      return null;
+    } catch (AssertionError e) {
+      return CheckFailure.of(e);
+    }
+  }
+}
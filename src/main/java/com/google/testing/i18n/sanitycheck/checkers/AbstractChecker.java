@@ -0,0 +1,38 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import com.ibm.icu.util.ULocale;
+
+import javax.annotation.Nullable;
+
+/**
+ * A base class for checkers that implement {@link #evaluate} only. {@link #check} throws the
+ * {@link AssertionError} of the reported failure.
+ */
+public abstract class AbstractChecker implements EvaluatingChecker {
+
+  @Override
+  public void check(Placeholder target, ULocale locale, @Nullable String message)
+      throws AssertionError {
+    CheckFailure failure = evaluate(target, locale, message);
+    if (failure != null) {
+      throw failure.toAssertionError();
+    }
+  }
+}
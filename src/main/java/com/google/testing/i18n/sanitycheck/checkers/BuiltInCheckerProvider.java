@@ -0,0 +1,145 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.testing.i18n.sanitycheck.metrics.MetricsSink;
+
+import java.util.Set;
+
+/**
+ * The provider of the checkers that come with the library. Date and number checkers keep their ICU
+ * formatters in caches that belong to the provider instance.
+ */
+public final class BuiltInCheckerProvider implements CheckerProvider {
+
+  /** Default number of date format candidate lists kept by each thread. */
+  public static final int DEFAULT_DATE_FORMAT_CACHE_SIZE = DateFormatCache.DEFAULT_MAXIMUM_SIZE;
+
+  /** Default number of idle number format candidate lists kept for every locale. */
+  public static final int DEFAULT_NUMBER_FORMAT_POOL_SIZE = NumberFormatPool.DEFAULT_MAXIMUM_IDLE;
+
+  private static final ImmutableSet<String> NAMES = ImmutableSet.of("ignore", "time", "date",
+      "datetime", "number", "timezone", "locale", "sorting", "tokenization", "period");
+
+  private final DateFormatCache dateFormatCache;
+  private final NumberFormatPool numberFormatPool;
+  private final MetricsSink metrics;
+  private final CandidateOrder candidateOrder;
+
+  /** Creates a provider whose checkers share the caches of the system. */
+  public BuiltInCheckerProvider() {
+    this(DateFormatCache.getDefault(), NumberFormatPool.getDefault(), MetricsSink.NO_OP,
+        CandidateOrder.getDefault());
+  }
+
+  /**
+   * Creates a provider whose checkers have caches of their own.
+   *
+   * @param dateFormatCacheSize is the number of date format candidate lists kept by each thread
+   * @param numberFormatPoolSize is the number of idle number format candidate lists kept for every
+   *        locale
+   */
+  public BuiltInCheckerProvider(int dateFormatCacheSize, int numberFormatPoolSize) {
+    this(dateFormatCacheSize, numberFormatPoolSize, MetricsSink.NO_OP);
+  }
+
+  /**
+   * Creates a provider whose checkers have caches of their own and report the number of tried
+   * candidate formats and the cache lookups to a given sink.
+   *
+   * @param dateFormatCacheSize is the number of date format candidate lists kept by each thread
+   * @param numberFormatPoolSize is the number of idle number format candidate lists kept for every
+   *        locale
+   * @param metrics receives the measurements of the checkers and their caches
+   */
+  public BuiltInCheckerProvider(int dateFormatCacheSize, int numberFormatPoolSize,
+      MetricsSink metrics) {
+    this(dateFormatCacheSize, numberFormatPoolSize, metrics, new CandidateOrder());
+  }
+
+  /**
+   * Creates a provider whose checkers have caches of their own, report to a given sink and try
+   * their candidate formats in a given order.
+   *
+   * @param dateFormatCacheSize is the number of date format candidate lists kept by each thread
+   * @param numberFormatPoolSize is the number of idle number format candidate lists kept for every
+   *        locale
+   * @param metrics receives the measurements of the checkers and their caches
+   * @param candidateOrder learns which candidate formats match most often
+   */
+  public BuiltInCheckerProvider(int dateFormatCacheSize, int numberFormatPoolSize,
+      MetricsSink metrics, CandidateOrder candidateOrder) {
+    this(new DateFormatCache(dateFormatCacheSize, metrics),
+        new NumberFormatPool(numberFormatPoolSize, metrics), metrics, candidateOrder);
+  }
+
+  private BuiltInCheckerProvider(DateFormatCache dateFormatCache,
+      NumberFormatPool numberFormatPool, MetricsSink metrics, CandidateOrder candidateOrder) {
+    this.dateFormatCache = Preconditions.checkNotNull(dateFormatCache);
+    this.numberFormatPool = Preconditions.checkNotNull(numberFormatPool);
+    this.metrics = Preconditions.checkNotNull(metrics);
+    this.candidateOrder = Preconditions.checkNotNull(candidateOrder);
+  }
+
+  /** Returns the order the created checkers try their candidate formats in. */
+  public CandidateOrder getCandidateOrder() {
+    return candidateOrder;
+  }
+
+  /** Returns the pool of the number formatters of the created checkers. */
+  public NumberFormatPool getNumberFormatPool() {
+    return numberFormatPool;
+  }
+
+  @Override
+  public Set<String> getNames() {
+    return NAMES;
+  }
+
+  @Override
+  public Checker create(String name) {
+    switch (name) {
+      case "ignore":
+        return new IgnoreChecker();
+      case "time":
+        return newTimeDateChecker(new TimeStringFormatProducer());
+      case "date":
+        return newTimeDateChecker(new DateStringFormatProducer());
+      case "datetime":
+        return newTimeDateChecker(new DateTimeStringFormatProducer());
+      case "number":
+        return new NumberChecker(numberFormatPool, metrics, candidateOrder);
+      case "timezone":
+        return new TimeZoneChecker();
+      case "locale":
+        return new LocaleChecker();
+      case "sorting":
+        return new OrderingChecker();
+      case "tokenization":
+        return new TokenizationChecker();
+      case "period":
+        return new DateTimePeriodChecker(newTimeDateChecker(new DateTimeStringFormatProducer()));
+      default:
+        throw new IllegalArgumentException("Unknown checker " + name);
+    }
+  }
+
+  private TimeDateChecker newTimeDateChecker(TimeDateChecker.DateFormatProducer producer) {
+    return new TimeDateChecker(producer, dateFormatCache, metrics, candidateOrder);
+  }
+}
@@ -0,0 +1,293 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.io.Files;
+
+import com.ibm.icu.util.ULocale;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.Nullable;
+
+/**
+ * Order in which the checkers try their candidate formats, learned from the candidates that
+ * matched before. Candidates that match often in a locale are tried first, so a typical check
+ * parses the actual string once instead of walking a long list of formats.
+ * <p>
+ * Match counts are kept per (checker, locale, lenient) key and could be saved to a file and loaded
+ * in the next run, so it starts with the learned order. Lookups and updates take no locks.
+ * CandidateOrder is thread-safe.
+ */
+public final class CandidateOrder {
+
+  private static final CandidateOrder DEFAULT = new CandidateOrder();
+
+  private static final String COMMENT = "#";
+  private static final char SEPARATOR = '\t';
+
+  private final ConcurrentMap<Key, Ranking> rankings = new ConcurrentHashMap<Key, Ranking>();
+  /** Loaded match counts of the keys that have not been used yet. */
+  private final ConcurrentMap<Key, long[]> loadedMatches = new ConcurrentHashMap<Key, long[]>();
+
+  /** Creates an order that has learned nothing yet. */
+  public CandidateOrder() {}
+
+  /** Returns the order shared by the checkers of {@link CheckerRegistry#getDefault}. */
+  public static CandidateOrder getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Returns the ranking of the candidates of a given checker.
+   *
+   * @param checker is a stable name of the candidate list, e.g. of its producer
+   * @param locale the candidates are built for
+   * @param lenient is the lenient flag the candidates are built for
+   * @param size is the number of candidates
+   * @return ranking of the candidates
+   */
+  Ranking get(String checker, ULocale locale, boolean lenient, int size) {
+    Key key = new Key(checker, locale, lenient);
+    Ranking result = rankings.get(key);
+    if (result == null || result.size() != size) {
+      long[] matches = loadedMatches.remove(key);
+      Ranking created = new Ranking(matches != null && matches.length == size
+          ? matches : new long[size]);
+      if (result == null) {
+        result = rankings.putIfAbsent(key, created);
+        if (result == null) {
+          result = created;
+        }
+      } else {
+        // The candidate list has changed, so the old counts are meaningless.
+        rankings.put(key, created);
+        result = created;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Loads the match counts saved by {@link #save(File)}. Nothing is loaded if the file does not
+   * exist.
+   *
+   * @param file to load from
+   * @throws IOException if the file could not be read
+   */
+  public void load(File file) throws IOException {
+    if (file.exists()) {
+      try (Reader reader = Files.newReader(file, Charsets.UTF_8)) {
+        load(reader);
+      }
+    }
+  }
+
+  /**
+   * Loads the match counts written by {@link #save(Writer)}. Loaded counts take effect for the
+   * keys that have not been used yet. Malformed lines are skipped.
+   *
+   * @param reader to load from
+   * @throws IOException if reading fails
+   */
+  public void load(Reader reader) throws IOException {
+    BufferedReader lines = new BufferedReader(reader);
+    Splitter fields = Splitter.on(SEPARATOR);
+    Splitter counts = Splitter.on(',');
+    for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+      if (line.isEmpty() || line.startsWith(COMMENT)) {
+        continue;
+      }
+      List<String> parts = fields.splitToList(line);
+      if (parts.size() != 4) {
+        continue;
+      }
+      List<String> countParts = counts.splitToList(parts.get(3));
+      long[] matches = new long[countParts.size()];
+      try {
+        for (int i = 0; i < matches.length; i++) {
+          matches[i] = Long.parseLong(countParts.get(i));
+        }
+      } catch (NumberFormatException e) {
+        continue;
+      }
+      Key key =
+          new Key(parts.get(0), new ULocale(parts.get(1)), Boolean.parseBoolean(parts.get(2)));
+      if (!rankings.containsKey(key)) {
+        loadedMatches.put(key, matches);
+      }
+    }
+  }
+
+  /**
+   * Saves the match counts to a given file, replacing its content.
+   *
+   * @param file to save to
+   * @throws IOException if the file could not be written
+   */
+  public void save(File file) throws IOException {
+    try (BufferedWriter writer = Files.newWriter(file, Charsets.UTF_8)) {
+      save(writer);
+    }
+  }
+
+  /**
+   * Writes the match counts of all keys, one key per line.
+   *
+   * @param writer to write to
+   * @throws IOException if writing fails
+   */
+  public void save(Writer writer) throws IOException {
+    writer.write(COMMENT + " checker, locale, lenient, matches of every candidate\n");
+    Map<Key, long[]> all = new HashMap<Key, long[]>(loadedMatches);
+    for (Map.Entry<Key, Ranking> entry : rankings.entrySet()) {
+      all.put(entry.getKey(), entry.getValue().getMatches());
+    }
+    Joiner fields = Joiner.on(SEPARATOR);
+    for (Map.Entry<Key, long[]> entry : all.entrySet()) {
+      Key key = entry.getKey();
+      StringBuilder counts = new StringBuilder();
+      for (long count : entry.getValue()) {
+        counts.append(counts.length() > 0 ? "," : "").append(count);
+      }
+      writer.write(fields.join(key.checker, key.locale, key.lenient, counts) + "\n");
+    }
+    writer.flush();
+  }
+
+  /**
+   * Match counts of a candidate list and the order derived from them. The order is replaced, not
+   * modified, when a candidate overtakes the one before it, so readers always see a complete
+   * permutation.
+   */
+  static final class Ranking {
+
+    private final AtomicLongArray matches;
+    private volatile Order order;
+
+    Ranking(long[] initialMatches) {
+      this.matches = new AtomicLongArray(initialMatches);
+      this.order = sort();
+    }
+
+    /** Returns the candidate indexes, most often matched first. Must not be modified. */
+    int[] order() {
+      return order.candidates;
+    }
+
+    /** Records that the candidate with a given index matched. */
+    void recordMatch(int candidate) {
+      long count = matches.incrementAndGet(candidate);
+      Order current = order;
+      int rank = current.ranks[candidate];
+      if (rank > 0 && count > matches.get(current.candidates[rank - 1])) {
+        order = sort();
+      }
+    }
+
+    int size() {
+      return matches.length();
+    }
+
+    long[] getMatches() {
+      long[] result = new long[matches.length()];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = matches.get(i);
+      }
+      return result;
+    }
+
+    /** Sorts the candidates by match count, keeping the original order of equal ones. */
+    private Order sort() {
+      long[] counts = getMatches();
+      int[] candidates = new int[counts.length];
+      for (int i = 0; i < candidates.length; i++) {
+        int candidate = i;
+        int j = i;
+        // Insertion sort, lists are short and mostly sorted already.
+        while (j > 0 && counts[candidates[j - 1]] < counts[candidate]) {
+          candidates[j] = candidates[j - 1];
+          j--;
+        }
+        candidates[j] = candidate;
+      }
+      return new Order(candidates);
+    }
+  }
+
+  /** A permutation of candidate indexes and its inverse. */
+  private static final class Order {
+    final int[] candidates;
+    final int[] ranks;
+
+    Order(int[] candidates) {
+      this.candidates = candidates;
+      this.ranks = new int[candidates.length];
+      for (int i = 0; i < candidates.length; i++) {
+        ranks[candidates[i]] = i;
+      }
+    }
+  }
+
+  /** Ranking key that combines a checker, a locale and a lenient flag. */
+  private static final class Key {
+    private final String checker;
+    private final ULocale locale;
+    private final boolean lenient;
+
+    Key(String checker, ULocale locale, boolean lenient) {
+      this.checker = Preconditions.checkNotNull(checker);
+      this.locale = Preconditions.checkNotNull(locale);
+      this.lenient = lenient;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) other;
+      return lenient == that.lenient && checker.equals(that.checker)
+          && locale.equals(that.locale);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(checker, locale, lenient);
+    }
+
+    @Override
+    public String toString() {
+      return checker + "/" + locale + "/" + lenient;
+    }
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.ibm.icu.text.NumberingSystem;
+import com.ibm.icu.util.ULocale;
+
+/**
+ * The classes of characters a text is made of, computed in a single pass without any locale data.
+ * Checkers compare the signature of the actual content with a per-locale table of what their
+ * candidates need, and skip the candidates that cannot parse the content before running ICU.
+ * <p>
+ * Digits and letters are classified by {@link Character}, whose Unicode version is at least the
+ * one of ICU. ICU parses the decimal digits of every script, which are digits of the signature, and
+ * the digits of the numbering system of the locale, which are not always. Checkers only skip
+ * candidates for locales where {@link #hasDecimalDigits} holds, so a candidate is never skipped for
+ * a missing digit that ICU would have found. CharacterSignature is immutable.
+ */
+final class CharacterSignature {
+
+  /** Percent and per mille signs of all scripts, in their usual and compatibility forms. */
+  private static final String PERCENT_SIGNS = "%\u066A\u0609\u060A\u2030\u2031\uFE6A\uFF05";
+
+  private final int digitRuns;
+  private final boolean startsWithDigit;
+  private final boolean letters;
+  private final boolean currencySigns;
+  private final boolean percentSigns;
+
+  private CharacterSignature(int digitRuns, boolean startsWithDigit, boolean letters,
+      boolean currencySigns, boolean percentSigns) {
+    this.digitRuns = digitRuns;
+    this.startsWithDigit = startsWithDigit;
+    this.letters = letters;
+    this.currencySigns = currencySigns;
+    this.percentSigns = percentSigns;
+  }
+
+  /** Classifies the characters of a given text. */
+  static CharacterSignature of(String text) {
+    int digitRuns = 0;
+    boolean inRun = false;
+    boolean letters = false;
+    boolean currencySigns = false;
+    boolean percentSigns = false;
+    for (int i = 0; i < text.length(); ) {
+      int c = text.codePointAt(i);
+      i += Character.charCount(c);
+      boolean digit = Character.isDigit(c);
+      if (digit && !inRun) {
+        digitRuns++;
+      }
+      inRun = digit;
+      letters |= Character.isLetter(c);
+      currencySigns |= Character.getType(c) == Character.CURRENCY_SYMBOL;
+      percentSigns |= PERCENT_SIGNS.indexOf(c) >= 0;
+    }
+    boolean startsWithDigit = !text.isEmpty() && Character.isDigit(text.codePointAt(0));
+    return new CharacterSignature(digitRuns, startsWithDigit, letters, currencySigns,
+        percentSigns);
+  }
+
+  /** Returns the number of maximal runs of decimal digits, e.g. 3 for "12/01/2014". */
+  int getDigitRuns() {
+    return digitRuns;
+  }
+
+  /** Returns true if the text contains a decimal digit of any script. */
+  boolean hasDigits() {
+    return digitRuns > 0;
+  }
+
+  /** Returns true if the first character of the text is a decimal digit. */
+  boolean startsWithDigit() {
+    return startsWithDigit;
+  }
+
+  /** Returns true if the text contains a letter of any script. */
+  boolean hasLetters() {
+    return letters;
+  }
+
+  /** Returns true if the text contains a currency symbol, such as "$" or "\u20AC". */
+  boolean hasCurrencySigns() {
+    return currencySigns;
+  }
+
+  /** Returns true if the text contains a percent or per mille sign of any script. */
+  boolean hasPercentSigns() {
+    return percentSigns;
+  }
+
+  /**
+   * Returns true if the numbers of a given locale are written with decimal digits that
+   * {@link Character#isDigit} recognizes. ICU also parses the digits of the numbering system of the
+   * locale, which are not always such digits, e.g. the Han digits of "zh@numbers=hanidec".
+   */
+  static boolean hasDecimalDigits(ULocale locale) {
+    NumberingSystem numberingSystem = NumberingSystem.getInstance(locale);
+    return !numberingSystem.isAlgorithmic() && areDecimalDigits(numberingSystem.getDescription());
+  }
+
+  /** Returns true if every character of a given text is a decimal digit of the signature. */
+  static boolean areDecimalDigits(String text) {
+    for (int i = 0; i < text.length(); ) {
+      int c = text.codePointAt(i);
+      if (!Character.isDigit(c)) {
+        return false;
+      }
+      i += Character.charCount(c);
+    }
+    return true;
+  }
+
+  /**
+   * Returns the number of candidates ruled out by a signature.
+   *
+   * @param candidates tells for every candidate whether it could parse the text
+   */
+  static int countPruned(boolean[] candidates) {
+    int result = 0;
+    for (boolean candidate : candidates) {
+      if (!candidate) {
+        result++;
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nullable;
+
+/**
+ * An immutable description of a failed sanity check. The message is rendered only when it is
+ * requested, so failures that are counted or aggregated but never shown cost neither
+ * {@link String#format} calls nor stack traces.
+ */
+public final class CheckFailure {
+
+  private static final Object[] NO_ARGS = new Object[0];
+
+  @Nullable
+  private final String customMessage;
+  private final String format;
+  private final Object[] args;
+  @Nullable
+  private final Throwable cause;
+  /** An error thrown by a checker that does not implement {@link EvaluatingChecker}. */
+  @Nullable
+  private final AssertionError error;
+
+  private CheckFailure(@Nullable String customMessage, String format, Object[] args,
+      @Nullable Throwable cause, @Nullable AssertionError error) {
+    this.customMessage = customMessage;
+    this.format = Preconditions.checkNotNull(format);
+    this.args = args;
+    this.cause = cause;
+    this.error = error;
+  }
+
+  /**
+   * Creates a failure with a given message.
+   *
+   * @param message is a complete failure message
+   */
+  public static CheckFailure of(String message) {
+    return new CheckFailure(message, "", NO_ARGS, null, null);
+  }
+
+  /**
+   * Creates a failure whose message is rendered by means of {@link String#format} on demand.
+   *
+   * @param customMessage is a user preferred message. If not null, it is used as is
+   * @param format of the automatically produced message
+   * @param args of the automatically produced message
+   */
+  public static CheckFailure of(@Nullable String customMessage, String format, Object... args) {
+    return new CheckFailure(customMessage, format, args, null, null);
+  }
+
+  /**
+   * Creates a failure caused by a given exception.
+   *
+   * @param customMessage is a user preferred message. If null or empty, the message of the cause
+   *        is used, or the cause itself if it has no message
+   * @param cause of the failure
+   */
+  public static CheckFailure of(@Nullable String customMessage, Throwable cause) {
+    String message = customMessage;
+    if (message == null || message.isEmpty()) {
+      message = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
+    return new CheckFailure(message, "", NO_ARGS, cause, null);
+  }
+
+  /**
+   * Creates a failure from an error thrown by {@link Checker#check}. The same error is thrown
+   * again by {@link #toAssertionError}.
+   */
+  public static CheckFailure of(AssertionError error) {
+    return new CheckFailure(error.getMessage(), "", NO_ARGS, error.getCause(), error);
+  }
+
+  /** Renders the failure message. */
+  public String getMessage() {
+    if (customMessage != null) {
+      return customMessage;
+    }
+    return args.length == 0 ? format : String.format(format, args);
+  }
+
+  /** Returns the exception that caused this failure, if any. */
+  @Nullable
+  public Throwable getCause() {
+    return cause;
+  }
+
+  /** Returns an {@link AssertionError} that reports this failure. */
+  public AssertionError toAssertionError() {
+    if (error != null) {
+      return error;
+    }
+    return cause != null ? new AssertionError(getMessage(), cause)
+        : new AssertionError(getMessage());
+  }
+
+  @Override
+  public String toString() {
+    return getMessage();
+  }
+}
@@ -15,7 +15,6 @@
  */
 package com.google.testing.i18n.sanitycheck.checkers;
 
-import com.google.common.collect.ImmutableMap;
 import com.google.testing.i18n.sanitycheck.parser.Placeholder;
 
 import com.ibm.icu.util.ULocale;
@@ -24,26 +23,11 @@ import javax.annotation.Nullable;
 
 /**
  * An object that performs sanity check of formatted strings with respect to the a locale. The
- * checker object is a singleton within the system, so implementations should not hold any state
- * information.
+ * checker object is a singleton within a {@link CheckerRegistry}, so implementations should not
+ * hold any state information.
  */
 public interface Checker {
 
-  /** Sanity checkers that are registered in the system. */
-  public static final ImmutableMap<String, Checker> CHECKERS = ImmutableMap
-      .<String, Checker>builder()
-      .put("ignore", new IgnoreChecker())
-      .put("time", new TimeDateChecker(new TimeStringFormatProducer()))
-      .put("date", new TimeDateChecker(new DateStringFormatProducer()))
-      .put("datetime", new TimeDateChecker(new DateTimeStringFormatProducer()))
-      .put("number", new NumberChecker())
-      .put("timezone", new TimeZoneChecker())
-      .put("locale", new LocaleChecker())
-      .put("sorting", new OrderingChecker())
-      .put("tokenization", new TokenizationChecker())
-      .put("period", new DateTimePeriodChecker())
-      .build();
-
   /**
    * Checks if a given {@link Placeholder} contains validly formatted information for a given
    * locale.
@@ -0,0 +1,42 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import java.util.Set;
+
+/**
+ * A source of {@link Checker}s found by {@link CheckerRegistry} by means of
+ * {@link java.util.ServiceLoader}. To add checkers to the system, implement this interface with a
+ * public no-argument constructor and list the implementation in a
+ * {@code META-INF/services/com.google.testing.i18n.sanitycheck.checkers.CheckerProvider} file.
+ * <p>
+ * Providers are instantiated when the registry loads, so they should be cheap to create. Checkers
+ * themselves are created by {@link #create} only when a placeholder with their name is used for
+ * the first time.
+ */
+public interface CheckerProvider {
+
+  /** Returns the names of the placeholders this provider has checkers for. */
+  public Set<String> getNames();
+
+  /**
+   * Creates the checker for a given placeholder name. Called at most once per name and registry.
+   *
+   * @param name is one of {@link #getNames}
+   * @return checker, which is shared by all checks of the registry
+   */
+  public Checker create(String name);
+}
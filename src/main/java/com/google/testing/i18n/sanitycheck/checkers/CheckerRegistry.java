@@ -0,0 +1,159 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Nullable;
+
+/**
+ * Sanity checkers that are registered in the system, by placeholder name. Checkers come from the
+ * {@link CheckerProvider}s found by means of {@link ServiceLoader}, or are registered explicitly
+ * by means of {@link #register(String, Checker)}.
+ * <p>
+ * Every checker is created on its first lookup, so unused checkers cost nothing. Lookups are
+ * lock-free once a checker is created. Registry is thread-safe.
+ */
+public final class CheckerRegistry {
+
+  private static final Logger logger = Logger.getLogger(CheckerRegistry.class.getCanonicalName());
+
+  /** Lazily loaded registry of the providers on the class path of this library. */
+  private static final class DefaultHolder {
+    static final CheckerRegistry DEFAULT = load(CheckerRegistry.class.getClassLoader());
+  }
+
+  private final ConcurrentMap<String, Supplier<Checker>> checkers =
+      new ConcurrentHashMap<String, Supplier<Checker>>();
+
+  /** Creates an empty registry. */
+  public CheckerRegistry() {}
+
+  /**
+   * Returns the registry that is used by the static methods of
+   * {@link com.google.testing.i18n.sanitycheck.SanityCheckProcessor}. Checkers registered there are
+   * visible to expected strings compiled after the registration.
+   */
+  public static CheckerRegistry getDefault() {
+    return DefaultHolder.DEFAULT;
+  }
+
+  /**
+   * Creates a registry with the checkers of all the providers that are visible to a given class
+   * loader. If several providers have checkers with the same name, the first one found wins.
+   *
+   * @param classLoader to look for providers with
+   * @return new registry
+   */
+  public static CheckerRegistry load(ClassLoader classLoader) {
+    return load(classLoader, new BuiltInCheckerProvider());
+  }
+
+  /**
+   * Creates a registry with given built-in checkers and the checkers of all other providers that
+   * are visible to a given class loader. Built-in checkers win over the ones with the same name.
+   *
+   * @param classLoader to look for providers with
+   * @param builtIns replaces the {@link BuiltInCheckerProvider} found by the class loader, e.g. to
+   *        give the checkers caches of their own
+   * @return new registry
+   */
+  public static CheckerRegistry load(ClassLoader classLoader, BuiltInCheckerProvider builtIns) {
+    CheckerRegistry registry = new CheckerRegistry();
+    registry.register(builtIns);
+    for (CheckerProvider provider : ServiceLoader.load(CheckerProvider.class, classLoader)) {
+      if (!(provider instanceof BuiltInCheckerProvider)) {
+        registry.register(provider);
+      }
+    }
+    return registry;
+  }
+
+  /**
+   * Adds the checkers of a given provider. Names that are already registered are kept.
+   *
+   * @param provider creates checkers on their first use
+   */
+  public void register(final CheckerProvider provider) {
+    for (final String name : provider.getNames()) {
+      Supplier<Checker> checker = Suppliers.memoize(new Supplier<Checker>() {
+        @Override
+        public Checker get() {
+          return Preconditions.checkNotNull(provider.create(name),
+              "Provider %s created no checker for %s", provider.getClass().getName(), name);
+        }
+      });
+      if (checkers.putIfAbsent(name, checker) != null) {
+        logger.log(Level.WARNING, String.format("Checker \"%s\" of %s is ignored, the name is "
+            + "already registered", name, provider.getClass().getName()));
+      }
+    }
+  }
+
+  /**
+   * Registers a checker under a given placeholder name, replacing any checker registered before.
+   * Expected strings that were compiled before are not affected.
+   *
+   * @param name of the placeholder
+   * @param checker to check the placeholder with. Should not hold any state, because it is shared
+   *        by all checks
+   */
+  public void register(String name, Checker checker) {
+    checkers.put(Preconditions.checkNotNull(name),
+        Suppliers.ofInstance(Preconditions.checkNotNull(checker)));
+  }
+
+  /**
+   * Returns the checker for a given placeholder name, creating it if necessary.
+   *
+   * @param name of the placeholder
+   * @return checker, or null if there is no checker with such a name
+   */
+  @Nullable
+  public Checker get(String name) {
+    Supplier<Checker> checker = checkers.get(name);
+    return checker != null ? checker.get() : null;
+  }
+
+  /** Returns true if there is a checker for a given placeholder name. Creates no checker. */
+  public boolean contains(String name) {
+    return checkers.containsKey(name);
+  }
+
+  /** Returns the names of all registered checkers. */
+  public ImmutableSet<String> getNames() {
+    return ImmutableSet.copyOf(checkers.keySet());
+  }
+
+  /** Returns all registered checkers, creating the ones that have not been used yet. */
+  public ImmutableList<Checker> getAll() {
+    ImmutableList.Builder<Checker> all = ImmutableList.builder();
+    for (Supplier<Checker> checker : checkers.values()) {
+      all.add(checker.get());
+    }
+    return all.build();
+  }
+}
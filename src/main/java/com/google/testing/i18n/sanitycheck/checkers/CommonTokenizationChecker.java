@@ -20,22 +20,23 @@ import com.google.testing.i18n.sanitycheck.parser.Placeholder;
 
 import com.ibm.icu.util.ULocale;
 
-import org.junit.Assert;
-
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 /**
  * An abstract class that provides the common logic for checkers that work with a list of tokenized
  * strings. It tokenizes an input string by means of the default or user provided delimiter, builds
  * a list from tokens and sends it to the abstract method {@link #makeCheck} for further validation.
  */
-public abstract class CommonTokenizationChecker implements Checker {
+public abstract class CommonTokenizationChecker extends AbstractChecker {
 
   private static final ImmutableList<String> DEFAULT_SPLITTERS =
       ImmutableList.of(System.getProperty("line.separator"), "\\;", "\\,", "\\ ");
 
   @Override
-  public void check(Placeholder target, ULocale locale, String message) {
+  @Nullable
+  public CheckFailure evaluate(Placeholder target, ULocale locale, @Nullable String message) {
     String splitter = target.getSplitter();
     String[] tokens = null;
     if (splitter != null) {
@@ -51,12 +52,12 @@ public abstract class CommonTokenizationChecker implements Checker {
         }
       }
     }
-    String errorMessage = message != null ? message
-        : "No possible splitters were detected. "
-        + "Please specify splitter explicitly by means of placeholder parameter \"splitter\"";
-    Assert.assertNotNull(errorMessage, tokens);
+    if (tokens == null) {
+      return CheckFailure.of(message, "No possible splitters were detected. "
+          + "Please specify splitter explicitly by means of placeholder parameter \"splitter\"");
+    }
 
-    makeCheck(target, ImmutableList.copyOf(tokens), locale, message);
+    return makeCheck(target, ImmutableList.copyOf(tokens), locale, message);
   }
 
   /**
@@ -74,8 +75,10 @@ public abstract class CommonTokenizationChecker implements Checker {
    * @param target {@link Placeholder} instance that contains complete information about formatted
    *        string that should be checked and some modifiers
    * @param tokenizedInput list of strings to be checked
+   * @return description of the failure, or null if the check is passed
    */
-  protected abstract void makeCheck(Placeholder target, ImmutableList<String> tokenizedInput,
-      ULocale locale, String message);
+  @Nullable
+  protected abstract CheckFailure makeCheck(Placeholder target,
+      ImmutableList<String> tokenizedInput, ULocale locale, @Nullable String message);
 
 }
@@ -0,0 +1,192 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.testing.i18n.sanitycheck.metrics.MetricsSink;
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import com.ibm.icu.text.DateFormat;
+import com.ibm.icu.util.ULocale;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bounded cache of the {@link DateFormat} candidates produced by a
+ * {@link TimeDateChecker.DateFormatProducer}. Entries are keyed by the producer, the locale and the
+ * lenient flag of a placeholder, so producers must not depend on any other placeholder parameter.
+ * <p>
+ * {@link DateFormat} is not thread-safe, so every thread gets its own copies of the candidates.
+ * Each thread keeps at most {@code maximumSize} entries and evicts the least recently used one
+ * when the limit is exceeded.
+ * <p>
+ * Candidates built by {@link #warmUp} are not owned by any thread until the first thread that
+ * misses the entry takes them over, so warming up on a background thread saves the thread that
+ * checks next from building them. ICU shares a part of the state of a {@link DateFormat} with its
+ * clones, so warmed candidates are handed over as they are rather than cloned for every thread.
+ * At most {@code maximumSize} warmed entries wait to be taken over, the least recently warmed ones
+ * are dropped first.
+ */
+final class DateFormatCache {
+
+  /** Default number of (producer, locale, lenient) entries that are kept by each thread. */
+  static final int DEFAULT_MAXIMUM_SIZE = 64;
+
+  private static final DateFormatCache DEFAULT = new DateFormatCache(DEFAULT_MAXIMUM_SIZE);
+
+  private final int maximumSize;
+  private final MetricsSink metrics;
+
+  /** Candidates built by warm-up that no thread has taken over yet, at most one list per entry. */
+  private final ConcurrentMap<Key, List<DateFormat>> warmed;
+
+  private final ThreadLocal<Map<Key, List<DateFormat>>> formats =
+      new ThreadLocal<Map<Key, List<DateFormat>>>() {
+        @Override
+        protected Map<Key, List<DateFormat>> initialValue() {
+          return new LruMap(maximumSize);
+        }
+      };
+
+  /**
+   * Creates a new cache.
+   *
+   * @param maximumSize is the number of entries each thread keeps before evicting old ones, and the
+   *        number of warmed entries kept until a thread takes them over
+   */
+  DateFormatCache(int maximumSize) {
+    this(maximumSize, MetricsSink.NO_OP);
+  }
+
+  /**
+   * Creates a new cache that reports its lookups to a given sink.
+   *
+   * @param maximumSize is the number of entries each thread keeps before evicting old ones, and the
+   *        number of warmed entries kept until a thread takes them over
+   * @param metrics receives a hit or a miss for every lookup
+   */
+  DateFormatCache(int maximumSize, MetricsSink metrics) {
+    Preconditions.checkArgument(maximumSize > 0, "maximumSize must be positive");
+    this.maximumSize = maximumSize;
+    this.metrics = Preconditions.checkNotNull(metrics);
+    this.warmed = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .<Key, List<DateFormat>>build()
+        .asMap();
+  }
+
+  /** Returns the cache shared by the checkers registered in the system. */
+  static DateFormatCache getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Returns the candidates of a given {@code producer} for a given placeholder and locale. The
+   * returned formatters are confined to the calling thread and must not be published to other
+   * threads. A lazy list from the producer is cached as is, so candidates are built by the first
+   * check that tries them.
+   *
+   * @param producer that builds the candidates on a cache miss
+   * @param target instance of the {@link Placeholder}
+   * @param locale to produce the candidates for
+   * @return list of {@link DateFormat}s owned by the calling thread
+   */
+  List<DateFormat> get(TimeDateChecker.DateFormatProducer producer, Placeholder target,
+      ULocale locale) {
+    Map<Key, List<DateFormat>> threadFormats = formats.get();
+    Key key = new Key(producer, locale, target.isLenient());
+    List<DateFormat> result = threadFormats.get(key);
+    if (result != null) {
+      metrics.recordCacheLookup(MetricsSink.DATE_FORMAT_CACHE, true);
+      return result;
+    }
+    result = warmed.remove(key);
+    metrics.recordCacheLookup(MetricsSink.DATE_FORMAT_CACHE, result != null);
+    if (result == null) {
+      result = producer.get(target, locale);
+    }
+    threadFormats.put(key, result);
+    return result;
+  }
+
+  /**
+   * Builds every candidate of a given {@code producer} for a given placeholder and locale, unless
+   * built ones are already waiting, and leaves them to the next thread that looks them up. Could be
+   * called from any thread.
+   *
+   * @param producer that builds the candidates
+   * @param target instance of the {@link Placeholder}
+   * @param locale to produce the candidates for
+   */
+  void warmUp(TimeDateChecker.DateFormatProducer producer, Placeholder target, ULocale locale) {
+    Key key = new Key(producer, locale, target.isLenient());
+    if (!warmed.containsKey(key)) {
+      List<DateFormat> candidates = producer.get(target, locale);
+      LazyCandidateList.buildAll(candidates);
+      // The map publishes the built candidates safely to the thread that takes them over.
+      warmed.putIfAbsent(key, candidates);
+    }
+  }
+
+  /** Access-ordered map that evicts its least recently used entry above a given size. */
+  private static final class LruMap extends LinkedHashMap<Key, List<DateFormat>> {
+    private static final long serialVersionUID = 1L;
+
+    private final int maximumSize;
+
+    LruMap(int maximumSize) {
+      super(16, 0.75f, true);
+      this.maximumSize = maximumSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Key, List<DateFormat>> eldest) {
+      return size() > maximumSize;
+    }
+  }
+
+  /** Cache key that combines a producer, a locale and a lenient flag. */
+  private static final class Key {
+    private final TimeDateChecker.DateFormatProducer producer;
+    private final ULocale locale;
+    private final boolean lenient;
+
+    Key(TimeDateChecker.DateFormatProducer producer, ULocale locale, boolean lenient) {
+      this.producer = Preconditions.checkNotNull(producer);
+      this.locale = Preconditions.checkNotNull(locale);
+      this.lenient = lenient;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) other;
+      return producer == that.producer && lenient == that.lenient && locale.equals(that.locale);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(System.identityHashCode(producer), locale, lenient);
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import com.ibm.icu.text.DateFormat;
+import com.ibm.icu.text.SimpleDateFormat;
+import com.ibm.icu.util.ULocale;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The (date style, time style) pairs of {@link DateFormat#getDateTimeInstance} that a
+ * {@link TimeDateChecker.DateFormatProducer} builds its candidates from. Different pairs often give
+ * the same pattern in a locale, so the pairs are deduplicated per locale by their effective
+ * pattern, and every pattern is parsed at most once per check. The first pair of a pattern is
+ * kept, so the candidates keep their order.
+ * <p>
+ * ICU does not implement parsing for the {@link DateFormat#RELATIVE} styles, so a relative format
+ * never matches. Its effective pattern is the one of the corresponding absolute style, which is
+ * always listed as well, so relative pairs are dropped as duplicates.
+ * <p>
+ * The distinct pairs of a locale are computed once and shared by all threads. The lenient flag
+ * does not change a pattern and is applied to the candidates afterwards. DateFormatStyles is
+ * thread-safe.
+ */
+final class DateFormatStyles {
+
+  private static final Logger logger = Logger.getLogger(DateFormatStyles.class.getCanonicalName());
+
+  private final ImmutableList<Style> styles;
+  private final ConcurrentMap<ULocale, ImmutableList<Style>> distinctStyles =
+      new ConcurrentHashMap<ULocale, ImmutableList<Style>>();
+  private final ConcurrentMap<ULocale, DateRecognizer> recognizers =
+      new ConcurrentHashMap<ULocale, DateRecognizer>();
+
+  private DateFormatStyles(ImmutableList<Style> styles) {
+    this.styles = styles;
+  }
+
+  /**
+   * Returns every combination of given date and time styles but ({@link DateFormat#NONE},
+   * {@link DateFormat#NONE}), ordered by date style first.
+   *
+   * @param dateStyles are the date styles, {@link DateFormat#NONE} for a time only format
+   * @param timeStyles are the time styles, {@link DateFormat#NONE} for a date only format
+   */
+  static DateFormatStyles combine(List<Integer> dateStyles, List<Integer> timeStyles) {
+    ImmutableList.Builder<Style> styles = ImmutableList.builder();
+    for (int dateStyle : dateStyles) {
+      for (int timeStyle : timeStyles) {
+        if (dateStyle != DateFormat.NONE || timeStyle != DateFormat.NONE) {
+          styles.add(new Style(dateStyle, timeStyle));
+        }
+      }
+    }
+    return new DateFormatStyles(styles.build());
+  }
+
+  /**
+   * Returns new candidates of a given locale, one for every distinct pattern. The candidates are
+   * built lazily, see {@link LazyCandidateList}.
+   *
+   * @param locale to build the candidates for
+   * @param lenient is the lenient flag of the candidates
+   */
+  List<DateFormat> newCandidates(final ULocale locale, final boolean lenient) {
+    final ImmutableList<Style> distinct = getDistinctStyles(locale);
+    return new LazyCandidateList<DateFormat>(distinct.size()) {
+      @Override
+      protected DateFormat create(int index) {
+        DateFormat dateFormat = distinct.get(index).newFormat(locale);
+        dateFormat.setLenient(lenient);
+        return dateFormat;
+      }
+    };
+  }
+
+  /**
+   * Returns the recognizer of the candidates of a given locale, which is compiled once and shared
+   * by all threads.
+   */
+  DateRecognizer getRecognizer(ULocale locale) {
+    DateRecognizer result = recognizers.get(locale);
+    if (result == null) {
+      List<DateFormat> formats = Lists.newArrayList();
+      for (Style style : getDistinctStyles(locale)) {
+        formats.add(style.newFormat(locale));
+      }
+      DateRecognizer created = DateRecognizer.compile(formats, locale);
+      result = recognizers.putIfAbsent(locale, created);
+      if (result == null) {
+        result = created;
+      }
+    }
+    return result;
+  }
+
+  /** Returns the number of pairs removed as duplicates for a given locale. */
+  int getRemovedCount(ULocale locale) {
+    return styles.size() - getDistinctStyles(locale).size();
+  }
+
+  private ImmutableList<Style> getDistinctStyles(ULocale locale) {
+    ImmutableList<Style> result = distinctStyles.get(locale);
+    if (result == null) {
+      ImmutableList<Style> created = deduplicate(locale);
+      result = distinctStyles.putIfAbsent(locale, created);
+      if (result == null) {
+        result = created;
+        logger.log(Level.FINE, String.format("Removed %d of %d date format candidates for %s",
+            styles.size() - created.size(), styles.size(), locale));
+      }
+    }
+    return result;
+  }
+
+  private ImmutableList<Style> deduplicate(ULocale locale) {
+    Set<String> patterns = Sets.newHashSet();
+    ImmutableList.Builder<Style> result = ImmutableList.builder();
+    for (Style style : styles) {
+      if (patterns.add(style.getEffectivePattern(locale))) {
+        result.add(style);
+      }
+    }
+    return result.build();
+  }
+
+  /** A (date style, time style) pair. */
+  private static final class Style {
+    private final int dateStyle;
+    private final int timeStyle;
+
+    Style(int dateStyle, int timeStyle) {
+      Preconditions.checkArgument(dateStyle != DateFormat.NONE || timeStyle != DateFormat.NONE);
+      this.dateStyle = dateStyle;
+      this.timeStyle = timeStyle;
+    }
+
+    DateFormat newFormat(ULocale locale) {
+      return DateFormat.getDateTimeInstance(dateStyle, timeStyle, locale);
+    }
+
+    /**
+     * Returns the pattern a format of this style parses in a given locale. Formats that are not
+     * pattern based are only equal to themselves.
+     */
+    String getEffectivePattern(ULocale locale) {
+      DateFormat format = DateFormat.getDateTimeInstance(
+          withoutRelative(dateStyle), withoutRelative(timeStyle), locale);
+      if (format instanceof SimpleDateFormat) {
+        return ((SimpleDateFormat) format).toPattern();
+      }
+      return format.getClass().getName() + ":" + dateStyle + ":" + timeStyle;
+    }
+
+    private static int withoutRelative(int style) {
+      return style == DateFormat.NONE ? style : style & ~DateFormat.RELATIVE;
+    }
+  }
+}
@@ -0,0 +1,409 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import com.ibm.icu.text.DateFormat;
+import com.ibm.icu.text.DateFormatSymbols;
+import com.ibm.icu.text.NumberFormat;
+import com.ibm.icu.text.SimpleDateFormat;
+import com.ibm.icu.util.ULocale;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+/**
+ * A matcher that tells which date format candidates of a locale could parse a given text, so that
+ * only those are handed to ICU. All candidate patterns are compiled into a single regular
+ * expression, which scans the text once and rejects non-dates without trying any candidate.
+ * <p>
+ * Every pattern field becomes a group of the locale's names of the field, e.g. month or weekday
+ * names, or of localized digits. Literal text of a pattern may be matched partially by lenient
+ * ICU parsing, so it becomes any run of characters other than digits. The expression accepts
+ * at least everything ICU does and never removes a matching candidate. It is only a filter,
+ * because it does not check the values of the fields.
+ * <p>
+ * DateRecognizer is immutable and thread-safe.
+ */
+final class DateRecognizer {
+
+  /** Texts longer than this are not scanned, all candidates are tried for them. */
+  static final int MAXIMUM_LENGTH = 256;
+
+  private static final DateRecognizer ACCEPT_ALL = new DateRecognizer(null, new int[0], new int[0]);
+
+  /**
+   * Length of the text fields with narrow names, which are mostly single letters. They are not
+   * part of the styles and would match almost anything.
+   */
+  private static final int NARROW_COUNT = 5;
+
+  private static final String DIGITS = "[-+\\u2212]?\\p{Nd}+";
+  private static final String POSSESSIVE_DIGITS = "[-+\\u2212]?\\p{Nd}++";
+  private static final String ANY = ".*?";
+  private static final String NON_DIGITS = "\\P{Nd}*?";
+  private static final String POSSESSIVE_NON_DIGITS = "\\P{Nd}*+";
+
+  /** Matches the candidate patterns, one optional look-ahead with a marker group each. */
+  @Nullable
+  private final Pattern pattern;
+  /** Marker group of every candidate, or 0 if the candidate is not pattern based. */
+  private final int[] candidateGroups;
+  /**
+   * Signature table of the candidates: the number of runs of digits every candidate needs, which
+   * is counted before the expression is run.
+   */
+  private final int[] minimumDigitRuns;
+
+  private DateRecognizer(@Nullable Pattern pattern, int[] candidateGroups,
+      int[] minimumDigitRuns) {
+    this.pattern = pattern;
+    this.candidateGroups = candidateGroups;
+    this.minimumDigitRuns = minimumDigitRuns;
+  }
+
+  /**
+   * Compiles the patterns of given candidates. The recognizer is only used with the candidates
+   * it is compiled for, or with equal ones in the same order.
+   *
+   * @param candidates are the formats of the locale
+   * @param locale of the candidates
+   * @return recognizer of the candidates
+   */
+  static DateRecognizer compile(List<DateFormat> candidates, ULocale locale) {
+    if (!CharacterSignature.hasDecimalDigits(locale)) {
+      // Numbers are spelled out or written with digits the expressions do not know.
+      return ACCEPT_ALL;
+    }
+    Map<String, Integer> groups = Maps.newLinkedHashMap();
+    int[] candidateGroups = new int[candidates.size()];
+    int[] minimumDigitRuns = new int[candidates.size()];
+    Names names = null;
+    for (int i = 0; i < candidates.size(); i++) {
+      DateFormat candidate = candidates.get(i);
+      if (!(candidate instanceof SimpleDateFormat)) {
+        continue;
+      }
+      SimpleDateFormat format = (SimpleDateFormat) candidate;
+      if (names == null) {
+        names = new Names(format.getDateFormatSymbols());
+      }
+      DatePattern datePattern = new DatePattern(format, names);
+      minimumDigitRuns[i] = getMinimumDigitRuns(datePattern);
+      String expression = toExpression(datePattern);
+      Integer group = groups.get(expression);
+      if (group == null) {
+        group = groups.size() + 1;
+        groups.put(expression, group);
+      }
+      candidateGroups[i] = group;
+    }
+    if (groups.isEmpty()) {
+      return ACCEPT_ALL;
+    }
+    StringBuilder combined = new StringBuilder();
+    for (String expression : groups.keySet()) {
+      combined.append("(?:(?=(?:").append(expression).append(")\\z)())?");
+    }
+    return new DateRecognizer(Pattern.compile(combined.toString(), Pattern.DOTALL),
+        candidateGroups, minimumDigitRuns);
+  }
+
+  /**
+   * Scans a given text once and returns the candidates that could parse it. The runs of digits of
+   * the text are counted first, and the expression is only run if that leaves a candidate.
+   *
+   * @param text to recognize
+   * @return for every candidate whether it could parse the text, or null if all of them could
+   */
+  @Nullable
+  boolean[] recognize(String text) {
+    if (pattern == null || text.length() > MAXIMUM_LENGTH) {
+      return null;
+    }
+    int digitRuns = CharacterSignature.of(text).getDigitRuns();
+    boolean[] result = new boolean[candidateGroups.length];
+    boolean patternNeeded = false;
+    for (int i = 0; i < candidateGroups.length; i++) {
+      result[i] = candidateGroups[i] == 0 || minimumDigitRuns[i] <= digitRuns;
+      patternNeeded |= candidateGroups[i] != 0 && result[i];
+    }
+    if (patternNeeded) {
+      Matcher matcher = pattern.matcher(foldCase(text));
+      matcher.lookingAt();
+      for (int i = 0; i < candidateGroups.length; i++) {
+        int group = candidateGroups[i];
+        result[i] &= group == 0 || matcher.group(group) != null;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Folds the case of every character of a given text the way
+   * {@link String#regionMatches(boolean, int, String, int, int)} compares characters, which is
+   * how ICU matches names. Names are folded once, so the expression needs no case insensitive
+   * matching, which is slow for Unicode.
+   */
+  private static String foldCase(String text) {
+    StringBuilder result = null;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      char folded = Character.toLowerCase(Character.toUpperCase(c));
+      if (folded != c && result == null) {
+        result = new StringBuilder(text.length()).append(text, 0, i);
+      }
+      if (result != null) {
+        result.append(folded);
+      }
+    }
+    return result != null ? result.toString() : text;
+  }
+
+  /**
+   * Translates a given pattern into a regular expression. Parts that can not match differently are
+   * possessive, so that a text that does not match fails fast. Unless two numeric fields abut,
+   * ICU parses all digits of a number, and so do the numeric fields.
+   */
+  private static String toExpression(DatePattern datePattern) {
+    List<String> fields = datePattern.fields;
+    List<String> literals = datePattern.literals;
+    // The literal before every field, the fields, and the literal after the last field.
+    StringBuilder result = new StringBuilder();
+    for (int i = 0; i < literals.size(); i++) {
+      boolean lastLiteral = i == fields.size();
+      appendLiteral(result, literals.get(i), lastLiteral || DIGITS.equals(fields.get(i)));
+      if (!lastLiteral) {
+        String field = fields.get(i);
+        result.append("\\s*");
+        if (DIGITS.equals(field)) {
+          result.append(datePattern.abutsNextField(i) ? DIGITS : POSSESSIVE_DIGITS);
+        } else if (ANY.equals(field)) {
+          result.append(ANY);
+        } else {
+          // Lenient parsing accepts numbers for text fields, which may take only some digits.
+          result.append("(?:").append(field).append('|').append(DIGITS).append(')');
+        }
+      }
+    }
+    return result.append("\\s*").toString();
+  }
+
+  /**
+   * Returns the number of runs of digits a text needs to match a given pattern. Numeric fields
+   * that abut share a run, and every other numeric field takes a whole run of its own.
+   */
+  private static int getMinimumDigitRuns(DatePattern datePattern) {
+    int result = 0;
+    boolean inRun = false;
+    for (int i = 0; i < datePattern.fields.size(); i++) {
+      boolean numeric = DIGITS.equals(datePattern.fields.get(i));
+      if (numeric && !inRun) {
+        result++;
+      }
+      inRun = numeric && datePattern.abutsNextField(i);
+    }
+    return result;
+  }
+
+  private static boolean isField(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  /**
+   * Appends the expression of a literal text, which lenient parsing may match partially or with
+   * different white space.
+   *
+   * @param possessive is true if the literal is followed by digits or by the end of the text, so
+   *        it never has to give back any of the characters it matched
+   */
+  private static void appendLiteral(StringBuilder result, String literal, boolean possessive) {
+    if (literal.isEmpty()) {
+      return;
+    }
+    boolean hasDigits = false;
+    for (int i = 0; i < literal.length(); i++) {
+      hasDigits |= Character.isDigit(literal.charAt(i));
+    }
+    result.append(hasDigits ? ANY : possessive ? POSSESSIVE_NON_DIGITS : NON_DIGITS);
+  }
+
+  /**
+   * Returns the expression of a pattern field: {@link #DIGITS}, {@link #ANY}, or the alternatives
+   * of the names of a text field.
+   */
+  private static String getFieldExpression(char field, int count, Names names) {
+    switch (field) {
+      case 'y': case 'Y': case 'u': case 'r': case 'g': case 'd': case 'D': case 'F':
+      case 'w': case 'W': case 'H': case 'h': case 'k': case 'K': case 'm': case 's': case 'S':
+      case 'A':
+        return DIGITS;
+      case 'M': case 'L':
+        return count <= 2 ? DIGITS : count < NARROW_COUNT ? names.months : ANY;
+      case 'E':
+        return count < NARROW_COUNT ? names.weekdays : ANY;
+      case 'e': case 'c':
+        return count <= 2 ? DIGITS : count < NARROW_COUNT ? names.weekdays : ANY;
+      case 'G':
+        return count < NARROW_COUNT ? names.eras : ANY;
+      case 'a':
+        return names.amPm;
+      default:
+        // Time zones, quarters and other fields that are rarely part of a style.
+        return ANY;
+    }
+  }
+
+  /** The field expressions of a date pattern and the literal texts around them. */
+  private static final class DatePattern {
+    /** Expression of every field, see {@link #getFieldExpression}. */
+    final List<String> fields = Lists.newArrayList();
+    /** The literal before every field and the one after the last field, possibly empty. */
+    final List<String> literals = Lists.newArrayList();
+
+    DatePattern(SimpleDateFormat format, Names names) {
+      String pattern = format.toPattern();
+      StringBuilder literal = new StringBuilder();
+      boolean quoted = false;
+      for (int i = 0; i < pattern.length(); i++) {
+        char c = pattern.charAt(i);
+        if (c == '\'') {
+          if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+            literal.append(c);
+            i++;
+          } else {
+            quoted = !quoted;
+          }
+        } else if (!quoted && isField(c)) {
+          int count = 1;
+          while (i + 1 < pattern.length() && pattern.charAt(i + 1) == c) {
+            count++;
+            i++;
+          }
+          String field = getFieldExpression(c, count, names);
+          if (DIGITS.equals(field) && !hasDecimalDigits(format.getNumberFormat(c))) {
+            // The field is spelled out or written with other digits, e.g. by a numbering system
+            // override.
+            field = ANY;
+          }
+          literals.add(literal.toString());
+          fields.add(field);
+          literal.setLength(0);
+        } else {
+          literal.append(c);
+        }
+      }
+      literals.add(literal.toString());
+    }
+
+    /**
+     * Returns true if a given field format writes its numbers with decimal digits. Every digit is
+     * formatted, since SimpleDateFormat uses internal number formats of its own, which expect the
+     * digit limits it sets before formatting a field.
+     */
+    private static boolean hasDecimalDigits(NumberFormat format) {
+      NumberFormat digitFormat = (NumberFormat) format.clone();
+      digitFormat.setMinimumIntegerDigits(1);
+      digitFormat.setMaximumIntegerDigits(1);
+      for (int digit = 0; digit < 10; digit++) {
+        if (!CharacterSignature.areDecimalDigits(digitFormat.format(digit))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /** Returns true if the field at a given index is directly followed by another field. */
+    boolean abutsNextField(int index) {
+      return index + 1 < fields.size() && literals.get(index + 1).isEmpty();
+    }
+  }
+
+  /** Alternatives of the localized names of the text fields. */
+  private static final class Names {
+    final String months;
+    final String weekdays;
+    final String eras;
+    final String amPm;
+
+    Names(DateFormatSymbols symbols) {
+      List<String[]> monthNames = Lists.newArrayList();
+      List<String[]> weekdayNames = Lists.newArrayList();
+      for (int context : new int[] {DateFormatSymbols.FORMAT, DateFormatSymbols.STANDALONE}) {
+        for (int width : new int[] {DateFormatSymbols.WIDE, DateFormatSymbols.ABBREVIATED}) {
+          monthNames.add(symbols.getMonths(context, width));
+          weekdayNames.add(symbols.getWeekdays(context, width));
+        }
+        weekdayNames.add(symbols.getWeekdays(context, DateFormatSymbols.SHORT));
+      }
+      months = toAlternatives(monthNames);
+      weekdays = toAlternatives(weekdayNames);
+      List<String[]> eraNames = Lists.newArrayList();
+      eraNames.add(symbols.getEras());
+      eraNames.add(symbols.getEraNames());
+      eras = toAlternatives(eraNames);
+      List<String[]> amPmNames = Lists.newArrayList();
+      amPmNames.add(symbols.getAmPmStrings());
+      amPmNames.add(new String[] {"am", "pm"});
+      amPm = toAlternatives(amPmNames);
+    }
+
+    /**
+     * Returns the alternatives of given names, longest first. Lenient parsing accepts names
+     * without their abbreviation dot.
+     */
+    private static String toAlternatives(List<String[]> nameLists) {
+      Set<String> names = Sets.newHashSet();
+      for (String[] nameList : nameLists) {
+        for (String name : nameList) {
+          if (name != null && !name.isEmpty()) {
+            String folded = foldCase(name);
+            names.add(folded);
+            if (folded.length() > 1 && folded.endsWith(".")) {
+              names.add(folded.substring(0, folded.length() - 1));
+            }
+          }
+        }
+      }
+      List<String> sorted = Lists.newArrayList(names);
+      Collections.sort(sorted, new Comparator<String>() {
+        @Override
+        public int compare(String first, String second) {
+          return first.length() != second.length() ? second.length() - first.length()
+              : first.compareTo(second);
+        }
+      });
+      StringBuilder result = new StringBuilder();
+      for (String name : sorted) {
+        if (result.length() > 0) {
+          result.append('|');
+        }
+        result.append(Pattern.quote(name));
+      }
+      return result.toString();
+    }
+  }
+}
@@ -15,25 +15,38 @@
  */
 package com.google.testing.i18n.sanitycheck.checkers;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotNull;
-
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.testing.i18n.sanitycheck.parser.Placeholder;
 
 import com.ibm.icu.util.ULocale;
 
+import javax.annotation.Nullable;
+
 /** An object that performs sanity check of a formatted date time period string. */
-class DateTimePeriodChecker implements Checker {
+class DateTimePeriodChecker extends AbstractChecker implements Warmable {
 
   private static final ImmutableList<String> DEFAULT_SPLITTERS =
       ImmutableList.of("\\-", "\\,", "\\ ");
 
-  private final TimeDateChecker timeDateChecker =
-      new TimeDateChecker(new DateTimeStringFormatProducer());
+  private final TimeDateChecker timeDateChecker;
+
+  DateTimePeriodChecker() {
+    this(new TimeDateChecker(new DateTimeStringFormatProducer()));
+  }
+
+  /**
+   * Creates a checker that checks both parts of a period by means of a given checker.
+   *
+   * @param timeDateChecker checks the date time parts of a period
+   */
+  DateTimePeriodChecker(TimeDateChecker timeDateChecker) {
+    this.timeDateChecker = Preconditions.checkNotNull(timeDateChecker);
+  }
 
   @Override
-  public void check(Placeholder target, ULocale locale, String message) throws AssertionError {
+  @Nullable
+  public CheckFailure evaluate(Placeholder target, ULocale locale, @Nullable String message) {
     String splitter = null;
     if (target.getSplitter() != null) {
       splitter = target.getSplitter();
@@ -51,17 +64,25 @@ class DateTimePeriodChecker implements Checker {
       }
     }
 
-    message = message != null ? message
-        : String.format("Possible splitters for period %s were not located. "
-            + "Please specify splitter explicitly by means of placeholder parameter \"splitter\"",
-            target.getActualContent());
-    assertNotNull(message, tokens);
-    assertEquals(message, 2, tokens.length);
+    if (tokens == null || tokens.length != 2) {
+      return CheckFailure.of(message, "Possible splitters for period %s were not located. "
+          + "Please specify splitter explicitly by means of placeholder parameter \"splitter\"",
+          target.getActualContent());
+    }
 
     for (String datePart : tokens) {
       Placeholder datePartPlaceholder =
           Placeholder.builder(target).setActualContent(datePart.trim()).build();
-      timeDateChecker.check(datePartPlaceholder, locale, message);
+      CheckFailure failure = timeDateChecker.evaluate(datePartPlaceholder, locale, message);
+      if (failure != null) {
+        return failure;
+      }
     }
+    return null;
+  }
+
+  @Override
+  public void warmUp(ULocale locale) {
+    timeDateChecker.warmUp(locale);
   }
 }
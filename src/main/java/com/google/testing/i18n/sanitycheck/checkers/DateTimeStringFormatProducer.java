@@ -21,11 +21,13 @@ import com.google.testing.i18n.sanitycheck.parser.Placeholder;
 import com.ibm.icu.text.DateFormat;
 import com.ibm.icu.util.ULocale;
 
+import java.util.List;
+
 /**
  * Producer of all possible {@link DateFormat}s for date and time.
  * See {@link DateFormat#getDateTimeInstance}.
  */
-class DateTimeStringFormatProducer implements TimeDateChecker.DateFormatProducer {
+class DateTimeStringFormatProducer implements TimeDateChecker.RecognizingProducer {
 
   private static final ImmutableList<Integer> FORMATS = ImmutableList.of(DateFormat.NONE,
       DateFormat.SHORT,
@@ -37,19 +39,15 @@ class DateTimeStringFormatProducer implements TimeDateChecker.DateFormatProducer
       DateFormat.RELATIVE_MEDIUM,
       DateFormat.RELATIVE_SHORT);
 
+  private static final DateFormatStyles STYLES = DateFormatStyles.combine(FORMATS, FORMATS);
+
+  @Override
+  public List<DateFormat> get(Placeholder target, ULocale locale) {
+    return STYLES.newCandidates(locale, target.isLenient());
+  }
+
   @Override
-  public ImmutableList<DateFormat> get(Placeholder target, ULocale locale) {
-    ImmutableList.Builder<DateFormat> result = ImmutableList.builder();
-    for (Integer dateType : FORMATS) {
-      for (Integer timeType : FORMATS) {
-        if (dateType == timeType && dateType == DateFormat.NONE) {
-          continue;
-        }
-        DateFormat dateFormat = DateFormat.getDateTimeInstance(dateType, timeType, locale);
-        dateFormat.setLenient(target.isLenient());
-        result.add(dateFormat);
-      }
-    }
-    return result.build();
+  public DateRecognizer getRecognizer(ULocale locale) {
+    return STYLES.getRecognizer(locale);
   }
 }
@@ -0,0 +1,43 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import com.ibm.icu.util.ULocale;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Checker} that could also report a failed check without throwing. Creating and throwing
+ * an {@link AssertionError} captures a stack trace, which dominates the cost of failing checks in
+ * large batches.
+ */
+public interface EvaluatingChecker extends Checker {
+
+  /**
+   * Checks if a given {@link Placeholder} contains validly formatted information for a given
+   * locale.
+   *
+   * @param target {@link Placeholder} instance that contains complete information about a formatted
+   *        string that should be checked
+   * @param locale to perform sanity check with respect to
+   * @param message is a user preferred message for errors
+   * @return description of the failure, or null if the check is passed
+   */
+  @Nullable
+  public CheckFailure evaluate(Placeholder target, ULocale locale, @Nullable String message);
+}
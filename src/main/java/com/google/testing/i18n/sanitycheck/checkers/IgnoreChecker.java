@@ -19,13 +19,16 @@ import com.google.testing.i18n.sanitycheck.parser.Placeholder;
 
 import com.ibm.icu.util.ULocale;
 
+import javax.annotation.Nullable;
+
 /**
  * An object that silently ignores any input data.
  */
-public class IgnoreChecker implements Checker {
+public class IgnoreChecker extends AbstractChecker {
 
   @Override
-  public void check(Placeholder target, ULocale locale, String message) throws AssertionError {
-    return;
+  @Nullable
+  public CheckFailure evaluate(Placeholder target, ULocale locale, @Nullable String message) {
+    return null;
   }
 }
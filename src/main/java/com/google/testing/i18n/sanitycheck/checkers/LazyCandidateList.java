@@ -0,0 +1,83 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.base.Preconditions;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An unmodifiable list of candidate formatters that builds every candidate when it is requested
+ * for the first time and keeps it afterwards. The size is known up front, so the candidates can be
+ * ranked by {@link CandidateOrder} before any of them exists, and a check that matches on its first
+ * candidate builds only that one.
+ * <p>
+ * LazyCandidateList is not thread-safe. Like the formatters it holds, it must be confined to one
+ * thread at a time.
+ *
+ * @param <T> type of the candidates
+ */
+abstract class LazyCandidateList<T> extends AbstractList<T> implements RandomAccess {
+
+  private final Object[] candidates;
+
+  /**
+   * Creates a list of a given number of candidates, none of which is built yet.
+   *
+   * @param size is the number of candidates
+   */
+  LazyCandidateList(int size) {
+    Preconditions.checkArgument(size >= 0, "size must not be negative");
+    candidates = new Object[size];
+  }
+
+  /**
+   * Builds the candidate at a given index. Called at most once for every index.
+   *
+   * @param index of the candidate, between 0 and {@link #size()} - 1
+   * @return the candidate, never null
+   */
+  protected abstract T create(int index);
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public final T get(int index) {
+    Preconditions.checkElementIndex(index, candidates.length);
+    Object result = candidates[index];
+    if (result == null) {
+      result = Preconditions.checkNotNull(create(index));
+      candidates[index] = result;
+    }
+    return (T) result;
+  }
+
+  @Override
+  public final int size() {
+    return candidates.length;
+  }
+
+  /**
+   * Builds every candidate of a given list, so that the checks that follow find them ready. Used
+   * by warm-up, which has to pay the whole cost up front.
+   */
+  static void buildAll(List<?> candidates) {
+    for (int i = 0; i < candidates.size(); i++) {
+      candidates.get(i);
+    }
+  }
+}
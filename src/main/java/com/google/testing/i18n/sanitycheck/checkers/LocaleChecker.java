@@ -20,32 +20,31 @@ import com.google.testing.i18n.sanitycheck.parser.Placeholder;
 
 import com.ibm.icu.util.ULocale;
 
-import org.junit.Assert;
-
 import javax.annotation.Nullable;
 
 /** An object that performs sanity check of a formatted locale string. */
-public class LocaleChecker implements Checker {
+public class LocaleChecker extends AbstractChecker {
 
   @Override
-  public void check(Placeholder target, ULocale locale, String message) {
+  @Nullable
+  public CheckFailure evaluate(Placeholder target, ULocale locale, @Nullable String message) {
     ULocale parsedLocale = new ULocale(target.getActualContent());
-    check(parsedLocale, target, message);
+    return evaluate(parsedLocale, target, message);
   }
 
   @VisibleForTesting
-  void check(ULocale parsedLocale, Placeholder target, @Nullable String message) {
+  @Nullable
+  CheckFailure evaluate(ULocale parsedLocale, Placeholder target, @Nullable String message) {
     String value = target.getExpectedValue();
     if (value != null) {
-      message = message != null ? message
-          : String.format("Expected locale \"%s\" is not equal to %s", value,
-              parsedLocale.toString());
-      Assert.assertEquals(message, value, parsedLocale.toString());
-    } else {
-      message = message != null ? message
-          : String.format("Locale \"%s\" is wrong", target.getActualContent());
-      Assert.assertFalse(message, parsedLocale.getISO3Country().isEmpty()
-          && parsedLocale.getISO3Language().isEmpty());
+      if (!value.equals(parsedLocale.toString())) {
+        return CheckFailure.of(message, "Expected locale \"%s\" is not equal to %s", value,
+            parsedLocale);
+      }
+    } else if (parsedLocale.getISO3Country().isEmpty()
+        && parsedLocale.getISO3Language().isEmpty()) {
+      return CheckFailure.of(message, "Locale \"%s\" is wrong", target.getActualContent());
     }
+    return null;
   }
 }
@@ -16,70 +16,161 @@
 package com.google.testing.i18n.sanitycheck.checkers;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.ImmutableList;
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.testing.i18n.sanitycheck.metrics.MetricsSink;
 import com.google.testing.i18n.sanitycheck.parser.Placeholder;
 
 import com.ibm.icu.text.NumberFormat;
 import com.ibm.icu.text.RuleBasedNumberFormat;
 import com.ibm.icu.util.ULocale;
 
-import org.junit.Assert;
-
-import java.text.ParseException;
+import java.text.ParsePosition;
 import java.util.List;
 
 import javax.annotation.Nullable;
 
 /** An object that performs sanity check of a formatted number. */
-public class NumberChecker implements Checker {
+public class NumberChecker extends AbstractChecker implements Warmable {
 
-  @Override
-  public void check(Placeholder target, ULocale locale, String message) {
-    List<NumberFormat> formatters = ImmutableList.of(NumberFormat.getCurrencyInstance(locale),
-        NumberFormat.getInstance(locale),
-        NumberFormat.getIntegerInstance(locale),
-        NumberFormat.getNumberInstance(locale),
-        NumberFormat.getPercentInstance(locale),
-        NumberFormat.getScientificInstance(locale),
-        new RuleBasedNumberFormat(locale, RuleBasedNumberFormat.SPELLOUT),
-        new RuleBasedNumberFormat(locale, RuleBasedNumberFormat.ORDINAL),
-        new RuleBasedNumberFormat(locale, RuleBasedNumberFormat.DURATION),
-        new RuleBasedNumberFormat(locale, RuleBasedNumberFormat.NUMBERING_SYSTEM));
+  /** Name of the candidate list in a {@link CandidateOrder}. */
+  private static final String RANKING_NAME = "number";
+
+  private final NumberFormatPool formatterPool;
+  private final MetricsSink metrics;
+  private final CandidateOrder candidateOrder;
+
+  public NumberChecker() {
+    this(NumberFormatPool.getDefault());
+  }
+
+  /**
+   * Creates a checker that borrows its candidate {@link NumberFormat}s from a given pool.
+   *
+   * @param formatterPool keeps the candidates between checks
+   */
+  NumberChecker(NumberFormatPool formatterPool) {
+    this(formatterPool, MetricsSink.NO_OP, CandidateOrder.getDefault());
+  }
 
-    check(formatters, target, locale, message);
+  /**
+   * Creates a checker that borrows its candidates from a given pool, tries them in a learned order
+   * and reports the number of tried candidates to a given sink.
+   *
+   * @param formatterPool keeps the candidates between checks
+   * @param metrics receives the number of candidates tried and pruned by every check
+   * @param candidateOrder learns which candidates match most often
+   */
+  NumberChecker(NumberFormatPool formatterPool, MetricsSink metrics,
+      CandidateOrder candidateOrder) {
+    this.formatterPool = Preconditions.checkNotNull(formatterPool);
+    this.metrics = Preconditions.checkNotNull(metrics);
+    this.candidateOrder = Preconditions.checkNotNull(candidateOrder);
+  }
+
+  @Override
+  @Nullable
+  public CheckFailure evaluate(Placeholder target, ULocale locale, @Nullable String message) {
+    boolean lenient = target.isLenient();
+    List<NumberFormat> formatters = formatterPool.borrow(locale, lenient);
+    try {
+      // The first candidate that parses decides the result if there is an expected value, so the
+      // learned order is only used without one, when any parsing candidate passes.
+      CandidateOrder.Ranking ranking = target.getExpectedValue() == null
+          ? candidateOrder.get(RANKING_NAME, locale, lenient, formatters.size()) : null;
+      boolean[] parsable =
+          formatterPool.getSignatureTable(locale).match(target.getActualContent(), lenient);
+      return evaluate(formatters, ranking, parsable, target, locale, message);
+    } finally {
+      formatterPool.release(locale, lenient, formatters);
+    }
   }
 
   @VisibleForTesting
-  void check(List<NumberFormat> formatters, Placeholder target, ULocale locale,
+  @Nullable
+  CheckFailure evaluate(List<NumberFormat> formatters, Placeholder target, ULocale locale,
       @Nullable String message) {
-    boolean passed = false;
-    for (NumberFormat formatter : formatters) {
-      try {
-        if (formatter instanceof RuleBasedNumberFormat) {
-          ((RuleBasedNumberFormat) formatter).setLenientParseMode(target.isLenient());
-        }
-        formatter.setParseStrict(!target.isLenient());
-        Number parsed = formatter.parse(target.getActualContent());
-        if (parsed != null) {
-          String value = target.getExpectedValue();
-          if (value != null) {
-            NumberFormat format = NumberFormat.getInstance();
-            Number expected = format.parse(value);
-            String errorMessage = message != null ? message
-                : String.format("Parsed number \"%s\" is not equal to the expected value %s",
-                    parsed, expected);
-            Assert.assertEquals(errorMessage, expected, parsed);
+    return evaluate(formatters, null, null, target, locale, message);
+  }
+
+  /**
+   * Checks a given placeholder by means of given candidates.
+   *
+   * @param ranking gives the order of the candidates and learns from the matching one. If null,
+   *        candidates are tried in the order of the list
+   * @param parsable tells for every candidate whether it could parse the content, see
+   *        {@link NumberSignatureTable}. If null, all candidates are tried
+   */
+  @Nullable
+  private CheckFailure evaluate(List<NumberFormat> formatters,
+      @Nullable CandidateOrder.Ranking ranking, @Nullable boolean[] parsable, Placeholder target,
+      ULocale locale, @Nullable String message) {
+    if (parsable != null) {
+      metrics.recordCandidatesPruned(target.getName(), CharacterSignature.countPruned(parsable),
+          parsable.length);
+    }
+    int[] order = ranking != null ? ranking.order() : null;
+    int tried = 0;
+    for (int i = 0; i < formatters.size(); i++) {
+      int index = order != null ? order[i] : i;
+      if (parsable != null && !parsable[index]) {
+        // The content lacks the characters the candidate needs.
+        continue;
+      }
+      NumberFormat formatter = formatters.get(index);
+      tried++;
+      if (formatter instanceof RuleBasedNumberFormat) {
+        ((RuleBasedNumberFormat) formatter).setLenientParseMode(target.isLenient());
+      }
+      formatter.setParseStrict(!target.isLenient());
+      Number parsed = parse(formatter, target.getActualContent());
+      if (parsed != null) {
+        String value = target.getExpectedValue();
+        Number expected = null;
+        if (value != null) {
+          expected = parse(NumberFormat.getInstance(), value);
+          if (expected == null) {
+            // An expected value that is not a number never matches.
+            continue;
           }
-          passed = true;
-          break;
         }
-      } catch (ParseException e) {
-        // Do nothing.
+        metrics.recordCandidatesTried(target.getName(), tried);
+        if (expected != null && !Objects.equal(expected, parsed)) {
+          return CheckFailure.of(message,
+              "Parsed number \"%s\" is not equal to the expected value %s", parsed, expected);
+        }
+        if (ranking != null) {
+          ranking.recordMatch(index);
+        }
+        return null;
       }
     }
-    String errorMessage = message != null ? message
-        : String.format("\"%s\" does not satisfies to any numeric format for %s",
-            target.getActualContent(), locale.toString());
-    Assert.assertTrue(errorMessage, passed);
+    metrics.recordCandidatesTried(target.getName(), tried);
+    return CheckFailure.of(message, "\"%s\" does not satisfies to any numeric format for %s",
+        target.getActualContent(), locale);
+  }
+
+  /**
+   * Parses a given text by means of a given formatter without throwing. Like
+   * {@link NumberFormat#parse(String)} it accepts a number followed by other text, such as a
+   * counter word after an amount.
+   *
+   * @return the parsed number, or null if no number starts the text
+   */
+  @Nullable
+  private static Number parse(NumberFormat formatter, String text) {
+    ParsePosition position = new ParsePosition(0);
+    Number result = formatter.parse(text, position);
+    return position.getIndex() > 0 ? result : null;
+  }
+
+  @Override
+  public void warmUp(ULocale locale) {
+    for (boolean lenient : new boolean[] {true, false}) {
+      List<NumberFormat> formatters = formatterPool.borrow(locale, lenient);
+      LazyCandidateList.buildAll(formatters);
+      formatterPool.release(locale, lenient, formatters);
+    }
+    formatterPool.getSignatureTable(locale);
   }
 }
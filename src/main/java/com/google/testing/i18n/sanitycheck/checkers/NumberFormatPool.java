@@ -0,0 +1,260 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.testing.i18n.sanitycheck.metrics.MetricsSink;
+
+import com.ibm.icu.text.NumberFormat;
+import com.ibm.icu.text.RuleBasedNumberFormat;
+import com.ibm.icu.util.ULocale;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of the {@link NumberFormat} candidates used by {@link NumberChecker}. Building the
+ * candidates, and especially compiling the rule sets of {@link RuleBasedNumberFormat}, is
+ * expensive, so the pool keeps configured candidate lists per locale and lenient flag. A list
+ * builds its candidates when they are tried for the first time, so the rule sets are only
+ * compiled for the checks that get that far.
+ * <p>
+ * {@link NumberFormat} is not thread-safe. A list is owned by a single caller between
+ * {@link #borrow} and {@link #release}, and the pool builds a new list if all idle ones are in use.
+ * At most {@code maximumIdle} lists are kept for every (locale, lenient) pair.
+ */
+public final class NumberFormatPool {
+
+  /** Default number of idle candidate lists that are kept for every (locale, lenient) pair. */
+  static final int DEFAULT_MAXIMUM_IDLE = Runtime.getRuntime().availableProcessors();
+
+  private static final NumberFormatPool DEFAULT = new NumberFormatPool(DEFAULT_MAXIMUM_IDLE);
+
+  /** Number of candidates in a list, see {@link #newFormatter}. */
+  private static final int FORMAT_COUNT = 10;
+
+  private final int maximumIdle;
+  private final MetricsSink metrics;
+  private final ConcurrentMap<Key, IdleFormats> idleFormats =
+      new ConcurrentHashMap<Key, IdleFormats>();
+  private final ConcurrentMap<ULocale, NumberSignatureTable> signatureTables =
+      new ConcurrentHashMap<ULocale, NumberSignatureTable>();
+
+  /**
+   * Creates a new pool.
+   *
+   * @param maximumIdle is the number of idle lists kept for every (locale, lenient) pair
+   */
+  NumberFormatPool(int maximumIdle) {
+    this(maximumIdle, MetricsSink.NO_OP);
+  }
+
+  /**
+   * Creates a new pool that reports its hits and misses to a given sink.
+   *
+   * @param maximumIdle is the number of idle lists kept for every (locale, lenient) pair
+   * @param metrics receives a hit or a miss for every borrowed list
+   */
+  NumberFormatPool(int maximumIdle, MetricsSink metrics) {
+    Preconditions.checkArgument(maximumIdle > 0, "maximumIdle must be positive");
+    this.maximumIdle = maximumIdle;
+    this.metrics = Preconditions.checkNotNull(metrics);
+  }
+
+  /** Returns the pool shared by the checkers registered in the system. */
+  public static NumberFormatPool getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Takes a list of candidates out of the pool, building a new one if there is no idle list for
+   * a given locale and lenient flag. The list must be given back by means of {@link #release}.
+   *
+   * @param locale to produce the candidates for
+   * @param lenient is the lenient flag of the checked placeholder
+   * @return list of configured {@link NumberFormat}s owned by the caller
+   */
+  List<NumberFormat> borrow(ULocale locale, boolean lenient) {
+    List<NumberFormat> formatters = getIdleFormats(new Key(locale, lenient)).poll();
+    if (formatters != null) {
+      metrics.recordCacheLookup(MetricsSink.NUMBER_FORMAT_POOL, true);
+      return formatters;
+    }
+    metrics.recordCacheLookup(MetricsSink.NUMBER_FORMAT_POOL, false);
+    return buildFormatters(locale, lenient);
+  }
+
+  /**
+   * Gives a list of candidates taken by means of {@link #borrow} back to the pool.
+   *
+   * @param locale the list was borrowed for
+   * @param lenient flag the list was borrowed for
+   * @param formatters is the borrowed list
+   */
+  void release(ULocale locale, boolean lenient, List<NumberFormat> formatters) {
+    getIdleFormats(new Key(locale, lenient)).offer(formatters);
+  }
+
+  /**
+   * Returns the signature table of the candidates of a given locale, in the order of a borrowed
+   * list. The table is built once and shared by all threads.
+   */
+  NumberSignatureTable getSignatureTable(ULocale locale) {
+    NumberSignatureTable result = signatureTables.get(locale);
+    if (result == null) {
+      int[] requirements = new int[FORMAT_COUNT];
+      for (int i = 0; i < FORMAT_COUNT; i++) {
+        requirements[i] = getRequirements(i);
+      }
+      NumberSignatureTable created = new NumberSignatureTable(locale, requirements);
+      result = signatureTables.putIfAbsent(locale, created);
+      if (result == null) {
+        result = created;
+      }
+    }
+    return result;
+  }
+
+  private IdleFormats getIdleFormats(Key key) {
+    IdleFormats result = idleFormats.get(key);
+    if (result == null) {
+      IdleFormats created = new IdleFormats();
+      result = idleFormats.putIfAbsent(key, created);
+      if (result == null) {
+        result = created;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns all numeric formats of a given locale configured for a given lenient flag. Every
+   * format is built when it is tried for the first time.
+   */
+  private static List<NumberFormat> buildFormatters(final ULocale locale, final boolean lenient) {
+    return new LazyCandidateList<NumberFormat>(FORMAT_COUNT) {
+      @Override
+      protected NumberFormat create(int index) {
+        NumberFormat formatter = newFormatter(index, locale);
+        if (formatter instanceof RuleBasedNumberFormat) {
+          ((RuleBasedNumberFormat) formatter).setLenientParseMode(lenient);
+        }
+        formatter.setParseStrict(!lenient);
+        return formatter;
+      }
+    };
+  }
+
+  /** Builds the numeric format of a given locale at a given index of the candidate list. */
+  private static NumberFormat newFormatter(int index, ULocale locale) {
+    switch (index) {
+      case 0:
+        return NumberFormat.getCurrencyInstance(locale);
+      case 1:
+        return NumberFormat.getInstance(locale);
+      case 2:
+        return NumberFormat.getIntegerInstance(locale);
+      case 3:
+        return NumberFormat.getNumberInstance(locale);
+      case 4:
+        return NumberFormat.getPercentInstance(locale);
+      case 5:
+        return NumberFormat.getScientificInstance(locale);
+      case 6:
+        return new RuleBasedNumberFormat(locale, RuleBasedNumberFormat.SPELLOUT);
+      case 7:
+        return new RuleBasedNumberFormat(locale, RuleBasedNumberFormat.ORDINAL);
+      case 8:
+        return new RuleBasedNumberFormat(locale, RuleBasedNumberFormat.DURATION);
+      case 9:
+        return new RuleBasedNumberFormat(locale, RuleBasedNumberFormat.NUMBERING_SYSTEM);
+      default:
+        throw new IndexOutOfBoundsException(String.valueOf(index));
+    }
+  }
+
+  /**
+   * Returns what the candidate at a given index of the list needs to find in a text, see
+   * {@link NumberSignatureTable}.
+   */
+  private static int getRequirements(int index) {
+    switch (index) {
+      case 0:
+        return NumberSignatureTable.NUMBER | NumberSignatureTable.CURRENCY;
+      case 1: case 2: case 3: case 5:
+        return NumberSignatureTable.NUMBER;
+      case 4:
+        return NumberSignatureTable.NUMBER | NumberSignatureTable.PERCENT;
+      case 6: case 7: case 8: case 9:
+        return NumberSignatureTable.SPELLED_OUT;
+      default:
+        throw new IndexOutOfBoundsException(String.valueOf(index));
+    }
+  }
+
+  /** Bounded queue of idle candidate lists. */
+  private final class IdleFormats {
+    private final Queue<List<NumberFormat>> formatters =
+        new ConcurrentLinkedQueue<List<NumberFormat>>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    List<NumberFormat> poll() {
+      List<NumberFormat> result = formatters.poll();
+      if (result != null) {
+        size.decrementAndGet();
+      }
+      return result;
+    }
+
+    void offer(List<NumberFormat> list) {
+      if (size.incrementAndGet() <= maximumIdle) {
+        formatters.offer(list);
+      } else {
+        size.decrementAndGet();
+      }
+    }
+  }
+
+  /** Pool key that combines a locale and a lenient flag. */
+  private static final class Key {
+    private final ULocale locale;
+    private final boolean lenient;
+
+    Key(ULocale locale, boolean lenient) {
+      this.locale = Preconditions.checkNotNull(locale);
+      this.lenient = lenient;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) other;
+      return lenient == that.lenient && locale.equals(that.locale);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(locale, lenient);
+    }
+  }
+}
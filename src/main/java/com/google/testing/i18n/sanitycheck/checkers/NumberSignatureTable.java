@@ -0,0 +1,105 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.ibm.icu.text.DecimalFormatSymbols;
+import com.ibm.icu.util.ULocale;
+
+import java.util.Arrays;
+
+/**
+ * What every number format candidate of a locale needs to find in a text, compared with the
+ * {@link CharacterSignature} of the text, so that {@link NumberChecker} skips the candidates that
+ * cannot parse it.
+ * <ul>
+ * <li>{@link #NUMBER}: a decimal format needs digits.
+ * <li>{@link #PERCENT}: a percent format needs a percent or per mille sign, lenient or not.
+ * <li>{@link #CURRENCY}: a currency format needs a currency symbol, or a currency code or name.
+ * The NaN and infinity symbols of the locale satisfy each of the above.
+ * <li>{@link #SPELLED_OUT}: a rule based format may parse digits as well. It is only skipped for a
+ * lenient text that starts with a digit, which the plain number candidate always parses. That
+ * candidate is tried before the rule based ones if there is an expected value, and passes the
+ * check otherwise, so skipping them does not change a result.
+ * </ul>
+ * Nothing is skipped for a locale whose digits are not decimal digits of the signature, e.g. the
+ * Han digits of "zh@numbers=hanidec". NumberSignatureTable is immutable and thread-safe.
+ */
+final class NumberSignatureTable {
+
+  static final int NUMBER = 1;
+  static final int PERCENT = 1 << 1;
+  static final int CURRENCY = 1 << 2;
+  static final int SPELLED_OUT = 1 << 3;
+
+  private final int[] requirements;
+  /** False if the signature could miss the digits of the locale, so no candidate is skipped. */
+  private final boolean prunes;
+  private final String nan;
+  private final String infinity;
+  private final String percent;
+  private final String perMill;
+  private final String currencySymbol;
+
+  /**
+   * Builds the table of the candidates of a given locale.
+   *
+   * @param locale of the candidates
+   * @param requirements of every candidate, a combination of the constants of this class
+   */
+  NumberSignatureTable(ULocale locale, int[] requirements) {
+    this.requirements = requirements.clone();
+    prunes = CharacterSignature.hasDecimalDigits(locale);
+    DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+    nan = symbols.getNaN();
+    infinity = symbols.getInfinity();
+    percent = String.valueOf(symbols.getPercent());
+    perMill = String.valueOf(symbols.getPerMill());
+    currencySymbol = symbols.getCurrencySymbol();
+  }
+
+  /**
+   * Returns the candidates that could parse a given text.
+   *
+   * @param text to parse
+   * @param lenient is the lenient flag of the candidates
+   * @return for every candidate whether it could parse the text
+   */
+  boolean[] match(String text, boolean lenient) {
+    if (!prunes) {
+      boolean[] result = new boolean[requirements.length];
+      Arrays.fill(result, true);
+      return result;
+    }
+    CharacterSignature signature = CharacterSignature.of(text);
+    // The NaN and infinity symbols are parsed without any affixes.
+    boolean special = text.contains(nan) || text.contains(infinity);
+    boolean number = signature.hasDigits() || special;
+    boolean percentSign = signature.hasPercentSigns() || text.contains(percent)
+        || text.contains(perMill) || special;
+    boolean currencySign = signature.hasCurrencySigns() || signature.hasLetters()
+        || text.contains(currencySymbol) || special;
+    boolean plainNumber = lenient && signature.startsWithDigit();
+    boolean[] result = new boolean[requirements.length];
+    for (int i = 0; i < requirements.length; i++) {
+      int needs = requirements[i];
+      result[i] = (number || (needs & NUMBER) == 0)
+          && (percentSign || (needs & PERCENT) == 0)
+          && (currencySign || (needs & CURRENCY) == 0)
+          && (!plainNumber || (needs & SPELLED_OUT) == 0);
+    }
+    return result;
+  }
+}
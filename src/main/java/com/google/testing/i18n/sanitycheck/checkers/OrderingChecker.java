@@ -23,17 +23,18 @@ import com.ibm.icu.text.Collator;
 import com.ibm.icu.text.RuleBasedCollator;
 import com.ibm.icu.util.ULocale;
 
-import org.junit.Assert;
+import javax.annotation.Nullable;
 
 /** An object that performs sanity check of the sorting order of a given list of strings. */
-public class OrderingChecker extends CommonTokenizationChecker {
+public class OrderingChecker extends CommonTokenizationChecker implements Warmable {
 
   @Override
-  protected void makeCheck(Placeholder target, ImmutableList<String> tokenizedInput, ULocale locale,
-      String message) {
+  @Nullable
+  protected CheckFailure makeCheck(Placeholder target, ImmutableList<String> tokenizedInput,
+      ULocale locale, @Nullable String message) {
     if (tokenizedInput.size() < 2) {
       // Test passed. Nothing to sort.
-      return;
+      return null;
     }
 
     int strength = Collator.SECONDARY;
@@ -68,12 +69,13 @@ public class OrderingChecker extends CommonTokenizationChecker {
     } catch (CloneNotSupportedException e) {
       // Do nothing.
     }
-    makeCheck(collators.build(), tokenizedInput, locale, message);
+    return makeCheck(collators.build(), tokenizedInput, locale, message);
   }
 
   @VisibleForTesting
-  void makeCheck(ImmutableList<Collator> collators, ImmutableList<String> tokenizedInput,
-      ULocale locale, String message) {
+  @Nullable
+  CheckFailure makeCheck(ImmutableList<Collator> collators, ImmutableList<String> tokenizedInput,
+      ULocale locale, @Nullable String message) {
     int position = 0;
     boolean failed = false;
     if (tokenizedInput != null) {
@@ -88,9 +90,17 @@ public class OrderingChecker extends CommonTokenizationChecker {
         break;
       }
     }
-    String errorMessage = message != null ? message
-        : String.format("List is not sorted for %s. Should have \"%s\" <= \"%s\" at position %s.",
-            locale, tokenizedInput.get(position), tokenizedInput.get(position - 1), position);
-    Assert.assertFalse(errorMessage, failed);
+    if (!failed) {
+      return null;
+    }
+    return CheckFailure.of(message,
+        "List is not sorted for %s. Should have \"%s\" <= \"%s\" at position %s.",
+        locale, tokenizedInput.get(position), tokenizedInput.get(position - 1), position);
+  }
+
+  @Override
+  public void warmUp(ULocale locale) {
+    // Loads and caches the collation tailoring of the locale.
+    Collator.getInstance(locale).compare("a", "b");
   }
 }
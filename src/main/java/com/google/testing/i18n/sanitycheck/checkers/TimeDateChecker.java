@@ -15,7 +15,8 @@
  */
 package com.google.testing.i18n.sanitycheck.checkers;
 
-import com.google.common.collect.ImmutableList;
+import com.google.common.base.Preconditions;
+import com.google.testing.i18n.sanitycheck.metrics.MetricsSink;
 import com.google.testing.i18n.sanitycheck.parser.Placeholder;
 
 import com.ibm.icu.text.DateFormat;
@@ -25,14 +26,16 @@ import com.ibm.icu.text.SimpleDateFormat;
 import com.ibm.icu.util.ULocale;
 
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.util.Date;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.annotation.Nullable;
 
 /** An object that sanity checks a date time related string. */
-final class TimeDateChecker implements Checker {
+final class TimeDateChecker extends AbstractChecker implements Warmable {
 
   /**
    * A utility that produces the {@link DateFormat}s that correspond to a given {@link Placeholder}
@@ -40,20 +43,64 @@ final class TimeDateChecker implements Checker {
    */
   static interface DateFormatProducer {
 
-    /** Returns the appropriate {@link DateFormat}s for the given input. */
-    ImmutableList<DateFormat> get(Placeholder target, ULocale locale);
+    /**
+     * Returns the appropriate {@link DateFormat}s for the given input. The list may build its
+     * elements lazily, see {@link LazyCandidateList}.
+     */
+    List<DateFormat> get(Placeholder target, ULocale locale);
+  }
+
+  /**
+   * A {@link DateFormatProducer} whose candidates of a locale always have the same patterns, so
+   * that it can tell which of them could parse a given text before any of them is tried.
+   */
+  static interface RecognizingProducer extends DateFormatProducer {
+
+    /** Returns the recognizer of the candidates produced for a given locale. */
+    DateRecognizer getRecognizer(ULocale locale);
   }
 
   private static final Logger logger = Logger.getLogger(TimeDateChecker.class.getCanonicalName());
 
   private final DateFormatProducer dateFormatsProducer;
+  private final DateFormatCache formatCache;
+  private final MetricsSink metrics;
+  private final CandidateOrder candidateOrder;
 
   public TimeDateChecker(DateFormatProducer dateFormatsProducer) {
-    this.dateFormatsProducer = dateFormatsProducer;
+    this(dateFormatsProducer, DateFormatCache.getDefault());
+  }
+
+  /**
+   * Creates a checker that takes its candidate {@link DateFormat}s from a given cache.
+   *
+   * @param dateFormatsProducer builds the candidates for a locale
+   * @param formatCache keeps the candidates between checks
+   */
+  TimeDateChecker(DateFormatProducer dateFormatsProducer, DateFormatCache formatCache) {
+    this(dateFormatsProducer, formatCache, MetricsSink.NO_OP, CandidateOrder.getDefault());
+  }
+
+  /**
+   * Creates a checker that takes its candidate {@link DateFormat}s from a given cache, tries them
+   * in a learned order and reports the number of tried candidates to a given sink.
+   *
+   * @param dateFormatsProducer builds the candidates for a locale
+   * @param formatCache keeps the candidates between checks
+   * @param metrics receives the number of candidates tried and pruned by every check
+   * @param candidateOrder learns which candidates match most often
+   */
+  TimeDateChecker(DateFormatProducer dateFormatsProducer, DateFormatCache formatCache,
+      MetricsSink metrics, CandidateOrder candidateOrder) {
+    this.dateFormatsProducer = Preconditions.checkNotNull(dateFormatsProducer);
+    this.formatCache = Preconditions.checkNotNull(formatCache);
+    this.metrics = Preconditions.checkNotNull(metrics);
+    this.candidateOrder = Preconditions.checkNotNull(candidateOrder);
   }
 
   @Override
-  public void check(Placeholder target, ULocale locale, String message) throws AssertionError {
+  @Nullable
+  public CheckFailure evaluate(Placeholder target, ULocale locale, @Nullable String message) {
     String pattern = target.getPattern();
     String skeleton = target.getSkeleton();
     String value = target.getExpectedValue();
@@ -63,55 +110,82 @@ final class TimeDateChecker implements Checker {
         try {
           expected = NumberFormat.getInstance().parse(value);
         } catch (ParseException e) {
-          throw new AssertionError(
-              String.format("The \"%s\" is an invalid value parameter for the date time checkers. "
-                + "Please specify numeric representation of date (see Date.getTime())", value));
+          return CheckFailure.of(null,
+              "The \"%s\" is an invalid value parameter for the date time checkers. "
+                + "Please specify numeric representation of date (see Date.getTime())", value);
         }
     }
     if (pattern != null) {
-      makePatternBasedCheck(target, pattern, locale, expected);
+      return makePatternBasedCheck(target, pattern, locale, expected);
     } else if (skeleton != null) {
       DateTimePatternGenerator patternGenerator = DateTimePatternGenerator.getInstance(locale);
       pattern = patternGenerator.getBestPattern(skeleton);
-      makePatternBasedCheck(target, pattern, locale, expected);
+      return makePatternBasedCheck(target, pattern, locale, expected);
     } else {
-      makeDateTimeCheck(target, locale, expected);
+      return makeDateTimeCheck(target, locale, expected);
     }
   }
 
   /**
-   * Checks the given formatted date by means of the {@link DateFormat} instances from
-   * {@code getFormatters} method. If one of the {@link DateFormat} instances parsed the given
-   * datetime correctly, then check considered as successful.
+   * Checks the given formatted date by means of the {@link DateFormat} instances from the
+   * producer, which are cached per thread, locale and lenient flag. If one of the
+   * {@link DateFormat} instances parsed the given datetime correctly, then check considered as
+   * successful. Candidates are tried in the order of how often they matched before, which does
+   * not change the result, because a check only fails after all candidates are tried. If the
+   * producer recognizes its candidates and the most frequent one does not match, the remaining
+   * candidates that cannot parse the content are skipped. The common match on the first
+   * candidate does not pay for recognition.
    *
    * @param target instance of the {@link Placeholder}
    * @param locale to use during the sanity check
    * @param expected is a numeric representation of expected date
-   * @throws AssertionError
+   * @return description of the failure, or null if the check is passed
    */
-  private void makeDateTimeCheck(Placeholder target, ULocale locale, @Nullable Number expected)
-      throws AssertionError {
+  @Nullable
+  private CheckFailure makeDateTimeCheck(Placeholder target, ULocale locale,
+      @Nullable Number expected) {
     // This variable is needed to distinguish two error cases: none of formats matches, or there are
     // matching formats, but expected value does not match.
     boolean matching = false;
-    for (DateFormat formatter : dateFormatsProducer.get(target, locale)) {
-      Date result = checkFormat(target, formatter);
+    int tried = 0;
+    List<DateFormat> formatters = formatCache.get(dateFormatsProducer, target, locale);
+    boolean[] recognized = null;
+    CandidateOrder.Ranking ranking = candidateOrder.get(dateFormatsProducer.getClass().getName(),
+        locale, target.isLenient(), formatters.size());
+    for (int index : ranking.order()) {
+      if (tried == 1 && recognized == null
+          && dateFormatsProducer instanceof RecognizingProducer) {
+        recognized = ((RecognizingProducer) dateFormatsProducer).getRecognizer(locale)
+            .recognize(target.getActualContent());
+        if (recognized != null) {
+          metrics.recordCandidatesPruned(target.getName(),
+              CharacterSignature.countPruned(recognized), recognized.length);
+        }
+      }
+      if (recognized != null && !recognized[index]) {
+        // The candidate cannot parse the content.
+        continue;
+      }
+      tried++;
+      Date result = checkFormat(target, formatters.get(index));
       if (result != null) {
         matching = true;
         if (checkExpectedValue(result, expected)) {
-          return;
+          ranking.recordMatch(index);
+          metrics.recordCandidatesTried(target.getName(), tried);
+          return null;
         }
       }
     }
-    String errorMessage;
+    metrics.recordCandidatesTried(target.getName(), tried);
     // Compose error message for assertion based on failure case.
     if (matching) {
-      errorMessage = String.format("The expected value '%d' does not match parsed data.", expected);
+      return CheckFailure.of(null, "The expected value '%d' does not match parsed data.",
+          expected);
     } else {
-      errorMessage = String.format("'%s' does not satisfy any format of locale %s.",
-          target.getActualContent(), locale.toString());
+      return CheckFailure.of(null, "'%s' does not satisfy any format of locale %s.",
+          target.getActualContent(), locale);
     }
-    throw new AssertionError(errorMessage);
   }
 
   /**
@@ -121,28 +195,32 @@ final class TimeDateChecker implements Checker {
    * @param pattern is a string representation of the date time pattern
    * @param locale to use during the sanity check
    * @param expected is a numeric representation of expected date
-   * @throws AssertionError
+   * @return description of the failure, or null if the check is passed
    */
-  private void makePatternBasedCheck(Placeholder target, String pattern,
-      ULocale locale, @Nullable Number expected) throws AssertionError {
+  @Nullable
+  private CheckFailure makePatternBasedCheck(Placeholder target, String pattern,
+      ULocale locale, @Nullable Number expected) {
     DateFormat formatter = new SimpleDateFormat(pattern, locale);
     formatter.setLenient(target.isLenient());
 
     Date result = checkFormat(target, formatter);
     if (result != null) {
       if (!checkExpectedValue(result, expected)) {
-        throw new AssertionError(String.format(
+        return CheckFailure.of(null,
             "Expected value '%s' does not match parsed value '%s' for pattern '%s'.",
-            expected, result.getTime()));
+            expected, result.getTime(), pattern);
       }
+      return null;
     } else {
-      throw new AssertionError(String.format("'%s' does not satisfy specified pattern '%s'.",
-          target.getActualContent(), pattern));
+      return CheckFailure.of(null, "'%s' does not satisfy specified pattern '%s'.",
+          target.getActualContent(), pattern);
     }
   }
 
   /**
-   * Checks the date time format against specificed formatter.
+   * Checks the date time format against specificed formatter. The formatter has to consume the
+   * whole content of the target, a failed parse is reported by the {@link ParsePosition} rather
+   * than by an exception.
    *
    * @param target instance of the {@link Placeholder}
    * @param formatter is DateFormat instance to check against
@@ -150,25 +228,21 @@ final class TimeDateChecker implements Checker {
    */
   @Nullable
   private Date checkFormat(Placeholder target, DateFormat formatter) {
-    Date result = null;
+    String actual = target.getActualContent();
+    ParsePosition position = new ParsePosition(0);
+    Date result;
     try {
-      result = formatter.parse(target.getActualContent());
-      if (result != null) {
-        if (target.isStrict()) {
-          String formattedDate = formatter.format(result);
-          if (!formattedDate.equals(target.getActualContent())) {
-            result = null;
-          }
-        }
-      }
-    } catch (ParseException e) {
-      // Just log, result is null by default.
-       logger.log(Level.FINE, String.format(
-           "Not critical exception happened during the date time sanity check for input %s",
-           target.getActualContent()), e);
+      result = formatter.parse(actual, position);
     } catch (UnsupportedOperationException e) {
       // Just log. Relative date time parsing is not implemented yet.
       logger.log(Level.FINE, "Relative datetime parsing is not implemented yet");
+      return null;
+    }
+    if (result == null || position.getIndex() != actual.length()) {
+      return null;
+    }
+    if (target.isStrict() && !formatter.format(result).equals(actual)) {
+      return null;
     }
     return result;
   }
@@ -183,4 +257,15 @@ final class TimeDateChecker implements Checker {
   private boolean checkExpectedValue(Date date, @Nullable Number expected) {
     return (expected == null) || expected.equals(date.getTime());
   }
+
+  @Override
+  public void warmUp(ULocale locale) {
+    for (boolean lenient : new boolean[] {true, false}) {
+      formatCache.warmUp(dateFormatsProducer,
+          Placeholder.builder("", "").putLenientParam(lenient).build(), locale);
+    }
+    if (dateFormatsProducer instanceof RecognizingProducer) {
+      ((RecognizingProducer) dateFormatsProducer).getRecognizer(locale);
+    }
+  }
 }
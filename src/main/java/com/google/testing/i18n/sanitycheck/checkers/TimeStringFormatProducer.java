@@ -21,11 +21,13 @@ import com.google.testing.i18n.sanitycheck.parser.Placeholder;
 import com.ibm.icu.text.DateFormat;
 import com.ibm.icu.util.ULocale;
 
+import java.util.List;
+
 /** 
  * Producer of all possible {@link DateFormat}s for time.
  * See {@link DateFormat#getTimeInstance}.
  */
-class TimeStringFormatProducer implements TimeDateChecker.DateFormatProducer {
+class TimeStringFormatProducer implements TimeDateChecker.RecognizingProducer {
 
   private static final ImmutableList<Integer> FORMATS = ImmutableList.of(DateFormat.SHORT,
       DateFormat.MEDIUM,
@@ -36,14 +38,16 @@ class TimeStringFormatProducer implements TimeDateChecker.DateFormatProducer {
       DateFormat.RELATIVE_MEDIUM,
       DateFormat.RELATIVE_SHORT);
 
+  private static final DateFormatStyles STYLES =
+      DateFormatStyles.combine(ImmutableList.of(DateFormat.NONE), FORMATS);
+
+  @Override
+  public List<DateFormat> get(Placeholder target, ULocale locale) {
+    return STYLES.newCandidates(locale, target.isLenient());
+  }
+
   @Override
-  public ImmutableList<DateFormat> get(Placeholder target, ULocale locale) {
-    ImmutableList.Builder<DateFormat> result = ImmutableList.builder();
-    for (Integer type : FORMATS) {
-      DateFormat dateFormat = DateFormat.getTimeInstance(type, locale);
-      dateFormat.setLenient(target.isLenient());
-      result.add(dateFormat);
-    }
-    return result.build();
+  public DateRecognizer getRecognizer(ULocale locale) {
+    return STYLES.getRecognizer(locale);
   }
 }
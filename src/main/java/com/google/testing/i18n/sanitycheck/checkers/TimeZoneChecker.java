@@ -21,34 +21,35 @@ import com.ibm.icu.text.TimeZoneFormat;
 import com.ibm.icu.util.TimeZone;
 import com.ibm.icu.util.ULocale;
 
-import org.junit.Assert;
+import java.text.ParsePosition;
 
-import java.text.ParseException;
+import javax.annotation.Nullable;
 
 /** An object that performs sanity check of a formatted time zone. */
-public class TimeZoneChecker implements Checker {
+public class TimeZoneChecker extends AbstractChecker implements Warmable {
 
   @Override
-  public void check(Placeholder target, ULocale locale, String message) {
+  @Nullable
+  public CheckFailure evaluate(Placeholder target, ULocale locale, @Nullable String message) {
     TimeZoneFormat formatter = TimeZoneFormat.getInstance(locale);
     String value = target.getExpectedValue();
-    try {
-      TimeZone timeZone = formatter.parse(target.getActualContent());
-      if (timeZone == null) {
-        String errorMessage = message != null ? message
-            : String.format("Timezone \"%s\" is not valid", target.getActualContent());
-        Assert.fail(errorMessage);
-      }
-      if (value != null) {
-        String errorMessage = message != null ? message
-            : String.format("Timezone \"%s\" is not equal to the expected timezone %s",
-                target.getActualContent(), value);
-        Assert.assertEquals(errorMessage, value, timeZone.getDisplayName());
-      }
-    } catch (ParseException e) {
-      String errorMessage = message != null ? message
-          : String.format("Timezone \"%s\" is not valid", target.getActualContent());
-      Assert.fail(errorMessage);
+    String actual = target.getActualContent();
+    ParsePosition position = new ParsePosition(0);
+    TimeZone timeZone = formatter.parse(actual, position);
+    if (timeZone == null || position.getIndex() != actual.length()) {
+      return CheckFailure.of(message, "Timezone \"%s\" is not valid", target.getActualContent());
     }
+    if (value != null && !value.equals(timeZone.getDisplayName())) {
+      return CheckFailure.of(message, "Timezone \"%s\" is not equal to the expected timezone %s",
+          target.getActualContent(), value);
+    }
+    return null;
+  }
+
+  @Override
+  public void warmUp(ULocale locale) {
+    // Parsing loads the localized time zone names, which is the expensive part of a check.
+    TimeZoneFormat.getInstance(locale).parse(TimeZone.getDefault().getDisplayName(locale),
+        new ParsePosition(0));
   }
 }
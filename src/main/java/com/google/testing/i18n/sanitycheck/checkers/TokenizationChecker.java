@@ -17,25 +17,31 @@ package com.google.testing.i18n.sanitycheck.checkers;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.testing.i18n.sanitycheck.parser.Placeholder;
 
 import com.ibm.icu.text.BreakIterator;
 import com.ibm.icu.util.ULocale;
 
-import org.junit.Assert;
-
-import java.util.Arrays;
+import javax.annotation.Nullable;
 
 /**
  * An object that validates the correctness of a string's tokenization. Based on ICU
  * {@link BreakIterator} class and inherits all its weaknesses. Don't use for ko locale because
  * {@link BreakIterator} is not working correctly for this locale.
  */
-public class TokenizationChecker extends CommonTokenizationChecker {
+public class TokenizationChecker extends CommonTokenizationChecker implements Warmable {
+
+  /** Sample texts of the languages whose word break iterators are dictionary based. */
+  private static final ImmutableMap<String, String> WARM_UP_SAMPLES = ImmutableMap.of(
+      "ja", "\u65e5\u672c\u8a9e\u306e\u6587",
+      "zh", "\u4e2d\u6587\u7684\u53e5\u5b50",
+      "th", "\u0e20\u0e32\u0e29\u0e32\u0e44\u0e17\u0e22");
 
   @Override
-  protected void makeCheck(Placeholder target, ImmutableList<String> tokenizedInput, ULocale locale,
-      String message) {
+  @Nullable
+  protected CheckFailure makeCheck(Placeholder target, ImmutableList<String> tokenizedInput,
+      ULocale locale, @Nullable String message) {
     StringBuilder untokenizedString = new StringBuilder();
     String expected = target.getExpectedValue();
     if (expected.isEmpty()) {
@@ -46,15 +52,15 @@ public class TokenizationChecker extends CommonTokenizationChecker {
       untokenizedString.append(expected);
     }
 
-    ImmutableList<String> tokensFromICU =
-        getTokens(untokenizedString.toString(), BreakIterator.getWordInstance(locale));
-    String errorMessage = message != null ? message
-        : String.format(
-            "The tokenization %s for the text \"%s\" doesn't appear to be valid for %s."
-            + "Should be more like: %s", Arrays.toString(tokenizedInput.toArray(new String[0])),
-            untokenizedString.toString(), locale.getDisplayLanguage(),
-            Arrays.toString(tokensFromICU.toArray(new String[0])));
-    Assert.assertEquals(errorMessage, tokensFromICU, tokenizedInput);
+    String text = untokenizedString.toString();
+    ImmutableList<String> tokensFromICU = getTokens(text, BreakIterator.getWordInstance(locale));
+    if (tokensFromICU.equals(tokenizedInput)) {
+      return null;
+    }
+    return CheckFailure.of(message,
+        "The tokenization %s for the text \"%s\" doesn't appear to be valid for %s."
+        + "Should be more like: %s", tokenizedInput, text, locale.getDisplayLanguage(),
+        tokensFromICU);
   }
 
   /**
@@ -77,4 +83,11 @@ public class TokenizationChecker extends CommonTokenizationChecker {
     }
     return result.build();
   }
+
+  @Override
+  public void warmUp(ULocale locale) {
+    // Dictionaries of the dictionary based languages are loaded on the first text in their script.
+    String sample = WARM_UP_SAMPLES.get(locale.getLanguage());
+    getTokens(sample != null ? sample : "warm up", BreakIterator.getWordInstance(locale));
+  }
 }
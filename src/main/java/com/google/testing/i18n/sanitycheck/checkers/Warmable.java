@@ -0,0 +1,34 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.ibm.icu.util.ULocale;
+
+/**
+ * An optional interface of a {@link Checker} that could prepare what it needs for a locale ahead of
+ * the first check. The first check for a locale otherwise pays for loading ICU resource bundles,
+ * compiling number rules, loading collation tailorings or break iterator dictionaries.
+ */
+public interface Warmable {
+
+  /**
+   * Builds and caches everything checks for a given locale need. Could be called from any thread
+   * and any number of times.
+   *
+   * @param locale to prepare checks for
+   */
+  public void warmUp(ULocale locale);
+}
@@ -0,0 +1,107 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.metrics;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram with fixed bucket bounds. Every bucket, the count and the sum are striped
+ * {@link LongAdder}s, so concurrent recording does not contend on a single memory location.
+ * Histogram is thread-safe. Values read while other threads record are not an atomic snapshot.
+ */
+public final class Histogram {
+
+  private final long[] upperBounds;
+  /** One bucket per upper bound and the last one for the larger values. */
+  private final LongAdder[] buckets;
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+
+  /**
+   * Creates a histogram with given inclusive upper bounds of its buckets. Values above the last
+   * bound go to an extra overflow bucket.
+   *
+   * @param upperBounds in ascending order
+   */
+  public Histogram(long... upperBounds) {
+    Preconditions.checkArgument(upperBounds.length > 0, "There must be at least one bucket");
+    for (int i = 1; i < upperBounds.length; i++) {
+      Preconditions.checkArgument(upperBounds[i - 1] < upperBounds[i],
+          "Upper bounds must be ascending");
+    }
+    this.upperBounds = upperBounds.clone();
+    this.buckets = new LongAdder[upperBounds.length + 1];
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Creates a histogram whose bucket bounds grow exponentially.
+   *
+   * @param first is the upper bound of the first bucket
+   * @param factor every bound is multiplied by to get the next one
+   * @param count is the number of bounds
+   * @return new histogram
+   */
+  public static Histogram exponential(long first, int factor, int count) {
+    Preconditions.checkArgument(first > 0 && factor > 1 && count > 0);
+    long[] bounds = new long[count];
+    bounds[0] = first;
+    for (int i = 1; i < count; i++) {
+      bounds[i] = bounds[i - 1] * factor;
+    }
+    return new Histogram(bounds);
+  }
+
+  /** Records a given value. */
+  public void record(long value) {
+    int index = Arrays.binarySearch(upperBounds, value);
+    buckets[index >= 0 ? index : -index - 1].increment();
+    count.increment();
+    sum.add(value);
+  }
+
+  /** Returns the inclusive upper bounds of the buckets, without the overflow one. */
+  public long[] getUpperBounds() {
+    return upperBounds.clone();
+  }
+
+  /**
+   * Returns the number of values in every bucket. The last element is the overflow bucket, so
+   * there is one element more than there are upper bounds.
+   */
+  public long[] getBucketCounts() {
+    long[] counts = new long[buckets.length];
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = buckets[i].sum();
+    }
+    return counts;
+  }
+
+  /** Returns the number of recorded values. */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /** Returns the sum of recorded values. */
+  public long getSum() {
+    return sum.sum();
+  }
+}
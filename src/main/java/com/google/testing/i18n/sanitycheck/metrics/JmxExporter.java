@@ -0,0 +1,171 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.metrics;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+
+import com.ibm.icu.util.ULocale;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * Publishes {@link StripedMetrics} as a read-only MBean, so they could be watched with JConsole or
+ * VisualVM while a test suite runs. Every counter and the count and sum of every histogram is a
+ * separate {@code Long} attribute, e.g. {@code CheckLatency.number.en_US.Count}. Attributes appear
+ * as soon as their series is recorded for the first time.
+ */
+public final class JmxExporter {
+
+  /** Name the metrics are registered under by {@link #register(StripedMetrics)}. */
+  public static final String DEFAULT_OBJECT_NAME =
+      "com.google.testing.i18n.sanitycheck:type=Metrics";
+
+  /** Do not instantiate */
+  private JmxExporter() {}
+
+  /**
+   * Registers given metrics in the platform MBean server under {@link #DEFAULT_OBJECT_NAME}.
+   *
+   * @param metrics to publish
+   * @return name of the registered MBean
+   * @throws JMException if the name is already taken
+   */
+  public static ObjectName register(StripedMetrics metrics) throws JMException {
+    return register(metrics, ManagementFactory.getPlatformMBeanServer(),
+        new ObjectName(DEFAULT_OBJECT_NAME));
+  }
+
+  /**
+   * Registers given metrics in a given MBean server.
+   *
+   * @param metrics to publish
+   * @param server to register in
+   * @param name of the MBean
+   * @return name of the registered MBean
+   * @throws JMException if the name is already taken
+   */
+  public static ObjectName register(StripedMetrics metrics, MBeanServer server, ObjectName name)
+      throws JMException {
+    return server.registerMBean(new MetricsMBean(metrics), name).getObjectName();
+  }
+
+  /** Returns the current values of all attributes of given metrics, by attribute name. */
+  static ImmutableMap<String, Long> snapshot(StripedMetrics metrics) {
+    ImmutableMap.Builder<String, Long> result = ImmutableMap.builder();
+    for (Map.Entry<String, ImmutableMap<ULocale, Histogram>> checker
+        : metrics.getCheckLatencies().entrySet()) {
+      for (Map.Entry<ULocale, Histogram> locale : checker.getValue().entrySet()) {
+        putHistogram(result, "CheckLatency." + checker.getKey() + "." + locale.getKey(),
+            "SumNanos", locale.getValue());
+      }
+    }
+    putHistogram(result, "ParseLatency", "SumNanos", metrics.getParseLatency());
+    for (Map.Entry<String, Histogram> checker : metrics.getCandidatesTried().entrySet()) {
+      putHistogram(result, "CandidatesTried." + checker.getKey(), "Sum", checker.getValue());
+    }
+    for (Map.Entry<String, Long> checker : metrics.getCandidatesPruned().entrySet()) {
+      result.put("CandidatesPruned." + checker.getKey(), checker.getValue());
+    }
+    for (Map.Entry<String, Long> checker : metrics.getCandidatesConsidered().entrySet()) {
+      result.put("CandidatesConsidered." + checker.getKey(), checker.getValue());
+    }
+    for (Map.Entry<String, Long> cache : metrics.getCacheHits().entrySet()) {
+      result.put("CacheHits." + cache.getKey(), cache.getValue());
+    }
+    for (Map.Entry<String, Long> cache : metrics.getCacheMisses().entrySet()) {
+      result.put("CacheMisses." + cache.getKey(), cache.getValue());
+    }
+    return result.build();
+  }
+
+  private static void putHistogram(ImmutableMap.Builder<String, Long> result, String prefix,
+      String sumName, Histogram histogram) {
+    result.put(prefix + ".Count", histogram.getCount());
+    result.put(prefix + "." + sumName, histogram.getSum());
+  }
+
+  /** Read-only MBean whose attributes are the current values of the metrics. */
+  private static final class MetricsMBean implements DynamicMBean {
+    private final StripedMetrics metrics;
+
+    MetricsMBean(StripedMetrics metrics) {
+      this.metrics = Preconditions.checkNotNull(metrics);
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+      Long value = snapshot(metrics).get(attribute);
+      if (value == null) {
+        throw new AttributeNotFoundException(attribute);
+      }
+      return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+      ImmutableMap<String, Long> values = snapshot(metrics);
+      AttributeList result = new AttributeList();
+      for (String attribute : attributes) {
+        if (values.containsKey(attribute)) {
+          result.add(new Attribute(attribute, values.get(attribute)));
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+      throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+      return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature)
+        throws ReflectionException {
+      throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+      ImmutableMap<String, Long> values = snapshot(metrics);
+      MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[values.size()];
+      int i = 0;
+      for (String name : values.keySet()) {
+        attributes[i++] = new MBeanAttributeInfo(name, Long.class.getName(), name, true, false,
+            false);
+      }
+      return new MBeanInfo(StripedMetrics.class.getName(), "i18n sanity check metrics",
+          attributes, null, null, null);
+    }
+  }
+}
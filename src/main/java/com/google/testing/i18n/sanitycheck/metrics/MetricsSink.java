@@ -0,0 +1,99 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.metrics;
+
+import com.ibm.icu.util.ULocale;
+
+/**
+ * A receiver of the measurements taken during sanity checks. Methods are called on the hot path
+ * by many threads at once, so implementations should be thread-safe and must not block, e.g. by
+ * recording into striped counters like {@link StripedMetrics} does.
+ * <p>
+ * A sink is given to a {@link com.google.testing.i18n.sanitycheck.SanityCheckEngine} by means of
+ * its builder. The default {@link #NO_OP} sink makes the engine skip all measurements.
+ */
+public interface MetricsSink {
+
+  /** Name of the cache of compiled expected strings. */
+  public static final String TEMPLATE_CACHE = "template";
+
+  /** Name of the per thread cache of the date format candidates. */
+  public static final String DATE_FORMAT_CACHE = "date_format";
+
+  /** Name of the pool of the number format candidates. */
+  public static final String NUMBER_FORMAT_POOL = "number_format";
+
+  /** Sink that drops all measurements. */
+  public static final MetricsSink NO_OP = new MetricsSink() {
+    @Override
+    public void recordCheckLatency(String checker, ULocale locale, long nanos) {}
+
+    @Override
+    public void recordParseLatency(long nanos) {}
+
+    @Override
+    public void recordCandidatesTried(String checker, int candidates) {}
+
+    @Override
+    public void recordCandidatesPruned(String checker, int pruned, int candidates) {}
+
+    @Override
+    public void recordCacheLookup(String cache, boolean hit) {}
+  };
+
+  /**
+   * Records the time a checker took to check one placeholder.
+   *
+   * @param checker is the name of the placeholder
+   * @param locale the placeholder was checked for
+   * @param nanos is the elapsed time in nanoseconds
+   */
+  public void recordCheckLatency(String checker, ULocale locale, long nanos);
+
+  /**
+   * Records the time the parser took to extract the placeholders of one actual string.
+   *
+   * @param nanos is the elapsed time in nanoseconds
+   */
+  public void recordParseLatency(long nanos);
+
+  /**
+   * Records the number of candidate formats a checker tried for one placeholder, including the
+   * matching one. A check that found no matching format records all of its candidates.
+   *
+   * @param checker is the name of the placeholder
+   * @param candidates is the number of tried formats
+   */
+  public void recordCandidatesTried(String checker, int candidates);
+
+  /**
+   * Records the number of candidate formats a checker skipped for one placeholder, because the
+   * characters of the content ruled them out, out of all of its candidates.
+   *
+   * @param checker is the name of the placeholder
+   * @param pruned is the number of skipped formats
+   * @param candidates is the number of all formats
+   */
+  public void recordCandidatesPruned(String checker, int pruned, int candidates);
+
+  /**
+   * Records a lookup in one of the caches.
+   *
+   * @param cache is the name of the cache, e.g. {@link #TEMPLATE_CACHE}
+   * @param hit is true if the value was found, false if it had to be built
+   */
+  public void recordCacheLookup(String cache, boolean hit);
+}
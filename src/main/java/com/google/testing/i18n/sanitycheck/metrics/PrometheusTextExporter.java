@@ -0,0 +1,144 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.metrics;
+
+import com.ibm.icu.util.ULocale;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes {@link StripedMetrics} in the Prometheus text exposition format, so they could be dumped
+ * to a file at the end of a test run or served by any existing endpoint. Latencies are reported in
+ * seconds.
+ */
+public final class PrometheusTextExporter {
+
+  private static final String PREFIX = "i18n_sanitycheck_";
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  /** Do not instantiate */
+  private PrometheusTextExporter() {}
+
+  /**
+   * Returns the text representation of given metrics.
+   *
+   * @param metrics to export
+   * @return metrics in the Prometheus text format
+   */
+  public static String export(StripedMetrics metrics) {
+    StringBuilder result = new StringBuilder();
+    try {
+      write(metrics, result);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+    return result.toString();
+  }
+
+  /**
+   * Writes the text representation of given metrics.
+   *
+   * @param metrics to export
+   * @param out to write to
+   * @throws IOException if {@code out} fails
+   */
+  public static void write(StripedMetrics metrics, Appendable out) throws IOException {
+    String name = PREFIX + "check_latency_seconds";
+    writeHeader(out, name, "histogram", "Time a checker took to check one placeholder.");
+    for (Map.Entry<String, ? extends Map<ULocale, Histogram>> checker
+        : metrics.getCheckLatencies().entrySet()) {
+      for (Map.Entry<ULocale, Histogram> locale : checker.getValue().entrySet()) {
+        writeHistogram(out, name, "checker=\"" + escape(checker.getKey()) + "\",locale=\""
+            + escape(locale.getKey().toString()) + "\",", locale.getValue(), NANOS_PER_SECOND);
+      }
+    }
+
+    name = PREFIX + "parse_latency_seconds";
+    writeHeader(out, name, "histogram", "Time the parser took to extract placeholders.");
+    writeHistogram(out, name, "", metrics.getParseLatency(), NANOS_PER_SECOND);
+
+    name = PREFIX + "candidates_tried";
+    writeHeader(out, name, "histogram", "Candidate formats tried for one placeholder.");
+    for (Map.Entry<String, Histogram> checker : metrics.getCandidatesTried().entrySet()) {
+      writeHistogram(out, name, "checker=\"" + escape(checker.getKey()) + "\",",
+          checker.getValue(), 1);
+    }
+
+    writeCounters(out, PREFIX + "candidates_pruned_total", "checker",
+        "Candidate formats skipped without parsing.", metrics.getCandidatesPruned());
+    writeCounters(out, PREFIX + "candidates_considered_total", "checker",
+        "Candidate formats of the checks that pruned candidates.",
+        metrics.getCandidatesConsidered());
+    writeCounters(out, PREFIX + "cache_hits_total", "cache", "Lookups that found a cached value.",
+        metrics.getCacheHits());
+    writeCounters(out, PREFIX + "cache_misses_total", "cache",
+        "Lookups that had to build a value.", metrics.getCacheMisses());
+  }
+
+  private static void writeHeader(Appendable out, String name, String type, String help)
+      throws IOException {
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  /**
+   * Writes the cumulative buckets, the sum and the count of a histogram.
+   *
+   * @param labels are the labels of the series, each one followed by a comma
+   * @param scale every recorded value is divided by
+   */
+  private static void writeHistogram(Appendable out, String name, String labels,
+      Histogram histogram, double scale) throws IOException {
+    long[] bounds = histogram.getUpperBounds();
+    long[] counts = histogram.getBucketCounts();
+    long cumulative = 0;
+    for (int i = 0; i < counts.length; i++) {
+      cumulative += counts[i];
+      String bound = i < bounds.length ? format(bounds[i], scale) : "+Inf";
+      out.append(name).append("_bucket{").append(labels).append("le=\"").append(bound)
+          .append("\"} ").append(Long.toString(cumulative)).append('\n');
+    }
+    String series = labels.isEmpty() ? "" : "{" + labels.substring(0, labels.length() - 1) + "}";
+    out.append(name).append("_sum").append(series).append(' ')
+        .append(format(histogram.getSum(), scale)).append('\n');
+    out.append(name).append("_count").append(series).append(' ')
+        .append(Long.toString(histogram.getCount())).append('\n');
+  }
+
+  /**
+   * Writes a counter for every key of given counters.
+   *
+   * @param label is the name of the label whose value is the key
+   */
+  private static void writeCounters(Appendable out, String name, String label, String help,
+      Map<String, Long> counters) throws IOException {
+    writeHeader(out, name, "counter", help);
+    for (Map.Entry<String, Long> counter : counters.entrySet()) {
+      out.append(name).append('{').append(label).append("=\"").append(escape(counter.getKey()))
+          .append("\"} ").append(Long.toString(counter.getValue())).append('\n');
+    }
+  }
+
+  private static String format(long value, double scale) {
+    return scale == 1 ? Long.toString(value) : Double.toString(value / scale);
+  }
+
+  /** Escapes a label value as required by the text format. */
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.metrics;
+
+import com.google.common.collect.ImmutableMap;
+
+import com.ibm.icu.util.ULocale;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link MetricsSink} that keeps all measurements in memory, in striped counters and
+ * {@link Histogram}s. Recording takes no locks once the series of a checker, locale or cache is
+ * created. Measurements could be published by means of {@link PrometheusTextExporter} or
+ * {@link JmxExporter}. Metrics are thread-safe.
+ */
+public final class StripedMetrics implements MetricsSink {
+
+  /** Upper bounds of the latency buckets, from 1 microsecond to about 4 seconds. */
+  private static final long FIRST_LATENCY_BOUND_NANOS = 1000;
+  private static final int LATENCY_BOUND_FACTOR = 4;
+  private static final int LATENCY_BOUND_COUNT = 12;
+
+  /** Upper bounds of the candidate count buckets, from 1 to 64. */
+  private static final int CANDIDATE_BOUND_COUNT = 7;
+
+  private final ConcurrentMap<String, ConcurrentMap<ULocale, Histogram>> checkLatencies =
+      new ConcurrentHashMap<String, ConcurrentMap<ULocale, Histogram>>();
+  private final Histogram parseLatency = newLatencyHistogram();
+  private final ConcurrentMap<String, Histogram> candidatesTried =
+      new ConcurrentHashMap<String, Histogram>();
+  private final ConcurrentMap<String, LongAdder> candidatesPruned =
+      new ConcurrentHashMap<String, LongAdder>();
+  private final ConcurrentMap<String, LongAdder> candidatesConsidered =
+      new ConcurrentHashMap<String, LongAdder>();
+  private final ConcurrentMap<String, LongAdder> cacheHits =
+      new ConcurrentHashMap<String, LongAdder>();
+  private final ConcurrentMap<String, LongAdder> cacheMisses =
+      new ConcurrentHashMap<String, LongAdder>();
+
+  @Override
+  public void recordCheckLatency(String checker, ULocale locale, long nanos) {
+    ConcurrentMap<ULocale, Histogram> byLocale = checkLatencies.get(checker);
+    if (byLocale == null) {
+      ConcurrentMap<ULocale, Histogram> created = new ConcurrentHashMap<ULocale, Histogram>();
+      byLocale = checkLatencies.putIfAbsent(checker, created);
+      if (byLocale == null) {
+        byLocale = created;
+      }
+    }
+    Histogram histogram = byLocale.get(locale);
+    if (histogram == null) {
+      Histogram created = newLatencyHistogram();
+      histogram = byLocale.putIfAbsent(locale, created);
+      if (histogram == null) {
+        histogram = created;
+      }
+    }
+    histogram.record(nanos);
+  }
+
+  @Override
+  public void recordParseLatency(long nanos) {
+    parseLatency.record(nanos);
+  }
+
+  @Override
+  public void recordCandidatesTried(String checker, int candidates) {
+    Histogram histogram = candidatesTried.get(checker);
+    if (histogram == null) {
+      Histogram created = Histogram.exponential(1, 2, CANDIDATE_BOUND_COUNT);
+      histogram = candidatesTried.putIfAbsent(checker, created);
+      if (histogram == null) {
+        histogram = created;
+      }
+    }
+    histogram.record(candidates);
+  }
+
+  @Override
+  public void recordCandidatesPruned(String checker, int pruned, int candidates) {
+    getCounter(candidatesPruned, checker).add(pruned);
+    getCounter(candidatesConsidered, checker).add(candidates);
+  }
+
+  @Override
+  public void recordCacheLookup(String cache, boolean hit) {
+    getCounter(hit ? cacheHits : cacheMisses, cache).increment();
+  }
+
+  /** Returns the check latency histograms in nanoseconds, by checker and then by locale. */
+  public ImmutableMap<String, ImmutableMap<ULocale, Histogram>> getCheckLatencies() {
+    ImmutableMap.Builder<String, ImmutableMap<ULocale, Histogram>> result = ImmutableMap.builder();
+    for (Map.Entry<String, ConcurrentMap<ULocale, Histogram>> entry : checkLatencies.entrySet()) {
+      result.put(entry.getKey(), ImmutableMap.copyOf(entry.getValue()));
+    }
+    return result.build();
+  }
+
+  /** Returns the parse latency histogram in nanoseconds. */
+  public Histogram getParseLatency() {
+    return parseLatency;
+  }
+
+  /** Returns the histograms of the number of tried candidate formats, by checker. */
+  public ImmutableMap<String, Histogram> getCandidatesTried() {
+    return ImmutableMap.copyOf(candidatesTried);
+  }
+
+  /** Returns the number of candidate formats skipped without parsing, by checker. */
+  public ImmutableMap<String, Long> getCandidatesPruned() {
+    return sums(candidatesPruned);
+  }
+
+  /**
+   * Returns the number of candidate formats of the checks that reported pruning, by checker.
+   * Divided into {@link #getCandidatesPruned()}, it gives the pruning ratio.
+   */
+  public ImmutableMap<String, Long> getCandidatesConsidered() {
+    return sums(candidatesConsidered);
+  }
+
+  /** Returns the number of hits of every cache. */
+  public ImmutableMap<String, Long> getCacheHits() {
+    return sums(cacheHits);
+  }
+
+  /** Returns the number of misses of every cache. */
+  public ImmutableMap<String, Long> getCacheMisses() {
+    return sums(cacheMisses);
+  }
+
+  private static LongAdder getCounter(ConcurrentMap<String, LongAdder> counters, String key) {
+    LongAdder counter = counters.get(key);
+    if (counter == null) {
+      LongAdder created = new LongAdder();
+      counter = counters.putIfAbsent(key, created);
+      if (counter == null) {
+        counter = created;
+      }
+    }
+    return counter;
+  }
+
+  private static ImmutableMap<String, Long> sums(Map<String, LongAdder> counters) {
+    ImmutableMap.Builder<String, Long> result = ImmutableMap.builder();
+    for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+      result.put(entry.getKey(), entry.getValue().sum());
+    }
+    return result.build();
+  }
+
+  private static Histogram newLatencyHistogram() {
+    return Histogram.exponential(
+        FIRST_LATENCY_BOUND_NANOS, LATENCY_BOUND_FACTOR, LATENCY_BOUND_COUNT);
+  }
+}
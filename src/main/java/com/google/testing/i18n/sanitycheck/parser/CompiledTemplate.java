@@ -0,0 +1,97 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.parser;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+/**
+ * An immutable object that represents an expected string prepared by {@link Parser} for matching.
+ * Contains the regular expression and the {@link SegmentExtractor} that extract the actual content
+ * of every placeholder, the raw placeholders in the same order as they appear in the expected
+ * string and a {@link Placeholder} prototype for every raw placeholder that is valid within the
+ * system.
+ * <p>
+ * Instances are created by {@link Parser#compile} and could be shared between threads.
+ */
+public final class CompiledTemplate {
+
+  private final String expected;
+  private final Pattern extractionPattern;
+  private final SegmentExtractor segmentExtractor;
+  private final ImmutableList<String> rawPlaceholders;
+  /** Prototypes with empty actual content, null for raw placeholders that are not valid. */
+  private final Placeholder[] prototypes;
+  private final ImmutableList<Placeholder> placeholders;
+
+  CompiledTemplate(String expected, Pattern extractionPattern, SegmentExtractor segmentExtractor,
+      ImmutableList<String> rawPlaceholders, Placeholder[] prototypes) {
+    Preconditions.checkArgument(rawPlaceholders.size() == prototypes.length);
+    this.expected = Preconditions.checkNotNull(expected);
+    this.extractionPattern = Preconditions.checkNotNull(extractionPattern);
+    this.segmentExtractor = Preconditions.checkNotNull(segmentExtractor);
+    this.rawPlaceholders = rawPlaceholders;
+    this.prototypes = prototypes.clone();
+    ImmutableList.Builder<Placeholder> validPlaceholders = ImmutableList.builder();
+    for (Placeholder prototype : prototypes) {
+      if (prototype != null) {
+        validPlaceholders.add(prototype);
+      }
+    }
+    this.placeholders = validPlaceholders.build();
+  }
+
+  /** Returns the expected string this template was compiled from. */
+  public String getExpected() {
+    return expected;
+  }
+
+  /**
+   * Returns the valid placeholders of the expected string in the same order as they appear there.
+   * Actual content of the returned placeholders is empty.
+   */
+  public ImmutableList<Placeholder> getPlaceholders() {
+    return placeholders;
+  }
+
+  /** Returns the regular expression with one group per placeholder. */
+  Pattern getExtractionPattern() {
+    return extractionPattern;
+  }
+
+  /** Returns the extractor that anchors on the static text segments. */
+  SegmentExtractor getSegmentExtractor() {
+    return segmentExtractor;
+  }
+
+  /** Returns the raw placeholders with escaped characters already replaced. */
+  ImmutableList<String> getRawPlaceholders() {
+    return rawPlaceholders;
+  }
+
+  /**
+   * Returns the prototype of the raw placeholder at a given index, or null if that placeholder is
+   * not valid within the system.
+   */
+  @Nullable
+  Placeholder getPrototype(int index) {
+    return prototypes[index];
+  }
+}
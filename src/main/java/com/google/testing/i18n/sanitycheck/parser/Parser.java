@@ -15,11 +15,26 @@
  */
 package com.google.testing.i18n.sanitycheck.parser;
 
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.testing.i18n.sanitycheck.checkers.CheckFailure;
+import com.google.testing.i18n.sanitycheck.checkers.CheckerRegistry;
+import com.google.testing.i18n.sanitycheck.metrics.MetricsSink;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.annotation.Nullable;
 
 /**
  * An object that expects two related strings, actual and expected, as an input and produces
@@ -43,29 +58,118 @@ import java.util.regex.Pattern;
  * placeholders syntax in the {@link Placeholder} class javadoc). In this case, the parser will try
  * to associate specific part of the actual message with any single placeholder from the expected
  * string. After that, static parts of the expected message are compared with related parts of the
- * actual message.
+ * actual message. The actual string must satisfy the expected string as a whole: text before the
+ * first or after the last static part is not ignored.
  * <li>Even if a part of the expected string satisfies a placeholder syntax, it will be recognized
  * as one if and only if this placeholder is listed in the
- * {@link com.google.testing.i18n.sanitycheck.checkers.Checker#CHECKERS} map. If not, then this part
- * of the expected text is interpreted as a static text.
+ * {@link CheckerRegistry} of the parser. If not, then this part of the expected text is interpreted
+ * as a static text.
  * <li>Regex constructions are legal in the expected string. They will be escaped and interpreted as
  * static text.
  * <li>It is also possible to escape { and } characters by means of \{ and \} constructions.
  * </ul>
  * <p>
+ * Placeholders are located by {@link PlaceholderLexer} in a single pass over the expected string.
+ * Their actual content is extracted by the {@link ExtractionEngine} chosen at construction time.
+ * <p>
+ * Compiled expected strings are kept in a bounded cache, so a parser instance is meant to be
+ * shared. Parser is thread-safe.
  */
 public class Parser {
 
-  /** Precompiled regular expression to detect placeholders. */
-  private static final Pattern PLACEHOLDER_PATTERN =
-      Pattern.compile("((?<!\\\\)\\{.*?(?<!\\\\)\\}+)", Pattern.MULTILINE | Pattern.DOTALL);
-
   /** String representation of a lazy regex group that satisfies any character. */
   private static final String LAZY_GROUP = "(.*?)";
 
   /** String representation of a greedy regex group that satisfies any character. */
   private static final String GREEDY_GROUP = "(.*)";
 
+  /** Default maximum number of compiled templates kept by a parser. */
+  public static final int DEFAULT_TEMPLATE_CACHE_SIZE = 1024;
+
+  /** Ways to extract the actual content of placeholders from an actual string. */
+  public enum ExtractionEngine {
+    /**
+     * Anchors on the static text segments of the expected string by means of plain string scans.
+     * Takes time linear in the length of the actual string and never backtracks.
+     */
+    SEGMENTS,
+    /**
+     * Applies a regular expression with one lazy group per placeholder. Kept as a fallback, it may
+     * backtrack heavily on long actual strings with many placeholders.
+     */
+    REGEX
+  }
+
+  private final LoadingCache<String, CompiledTemplate> templates;
+  private final ExtractionEngine engine;
+  private final CheckerRegistry registry;
+  private final MetricsSink metrics;
+
+  /** Creates a parser that keeps up to {@link #DEFAULT_TEMPLATE_CACHE_SIZE} compiled templates. */
+  public Parser() {
+    this(DEFAULT_TEMPLATE_CACHE_SIZE);
+  }
+
+  /**
+   * Creates a parser with a given template cache size that uses the
+   * {@link ExtractionEngine#SEGMENTS} engine.
+   *
+   * @param templateCacheSize maximum number of compiled templates to keep. Zero disables caching
+   */
+  public Parser(int templateCacheSize) {
+    this(templateCacheSize, ExtractionEngine.SEGMENTS);
+  }
+
+  /**
+   * Creates a parser with a given template cache size and extraction engine that recognizes the
+   * placeholders of {@link CheckerRegistry#getDefault}.
+   *
+   * @param templateCacheSize maximum number of compiled templates to keep. Zero disables caching
+   * @param engine extracts the actual content of placeholders
+   */
+  public Parser(int templateCacheSize, ExtractionEngine engine) {
+    this(templateCacheSize, engine, CheckerRegistry.getDefault());
+  }
+
+  /**
+   * Creates a parser with a given template cache size, extraction engine and checker registry.
+   * Expected strings are compiled once and then reused until they are evicted from the cache in the
+   * least recently used order.
+   *
+   * @param templateCacheSize maximum number of compiled templates to keep. Zero disables caching
+   * @param engine extracts the actual content of placeholders
+   * @param registry has the checkers of the recognized placeholders
+   */
+  public Parser(int templateCacheSize, ExtractionEngine engine, CheckerRegistry registry) {
+    this(templateCacheSize, engine, registry, MetricsSink.NO_OP);
+  }
+
+  /**
+   * Creates a parser with a given template cache size, extraction engine and checker registry
+   * that reports parse latencies and template cache lookups to a given sink.
+   *
+   * @param templateCacheSize maximum number of compiled templates to keep. Zero disables caching
+   * @param engine extracts the actual content of placeholders
+   * @param registry has the checkers of the recognized placeholders
+   * @param metrics receives the measurements
+   */
+  public Parser(int templateCacheSize, ExtractionEngine engine, CheckerRegistry registry,
+      MetricsSink metrics) {
+    Preconditions.checkArgument(templateCacheSize >= 0, "templateCacheSize must not be negative");
+    this.engine = Preconditions.checkNotNull(engine);
+    this.registry = Preconditions.checkNotNull(registry);
+    this.metrics = Preconditions.checkNotNull(metrics);
+    templates = CacheBuilder.newBuilder()
+        .maximumSize(templateCacheSize)
+        .recordStats()
+        .build(new CacheLoader<String, CompiledTemplate>() {
+          @Override
+          public CompiledTemplate load(String expected) {
+            return buildTemplate(expected);
+          }
+        });
+  }
+
   /**
    * Parses a given {@code expected} string and returns a list of the {@link Placeholder} instances
    * that were found.
@@ -77,110 +181,209 @@ public class Parser {
    *         does not satisfies {@code expected} format
    */
   public ImmutableList<Placeholder> parse(String actual, String expected) throws ParserException {
-    Matcher placeholderMatcher = PLACEHOLDER_PATTERN.matcher(expected);
-    String extractionPatternText = buildExtractionPattern(placeholderMatcher, expected);
-    placeholderMatcher.reset();
-    ImmutableList<String> rawPlaceholders = extractPlaceholders(placeholderMatcher);
-    Pattern extractionPattern = Pattern.compile(extractionPatternText);
+    return parse(actual, compile(expected));
+  }
+
+  /**
+   * Parses a given {@code actual} string by means of an already compiled expected string and
+   * returns a list of the {@link Placeholder} instances that were found.
+   *
+   * @param actual golden data string that should satisfy a given {@code template}.
+   * @param template compiled pattern that describes a given {@code actual} data.
+   * @return list of {@link Placeholder} entities.
+   * @throws ParserException would be thrown if {@code actual} does not satisfies {@code template}
+   */
+  public ImmutableList<Placeholder> parse(String actual, CompiledTemplate template)
+      throws ParserException {
+    List<Placeholder> placeholders = new ArrayList<Placeholder>(template.getPlaceholders().size());
+    CheckFailure failure = tryParse(actual, template, null, placeholders);
+    if (failure != null) {
+      throw new ParserException(failure.getMessage());
+    }
+    return ImmutableList.copyOf(placeholders);
+  }
+
+  /**
+   * Parses a given {@code actual} string by means of an already compiled expected string like
+   * {@link #parse(String, CompiledTemplate)}, but reports a mismatch without throwing. The message
+   * of the returned failure is rendered only when it is requested, so a mismatch that is counted
+   * but never shown costs neither a stack trace nor a copy of the actual string.
+   *
+   * @param actual golden data string that should satisfy a given {@code template}
+   * @param template compiled pattern that describes a given {@code actual} data
+   * @param message custom message to be reported instead of the automatically produced one
+   * @param placeholders receives the {@link Placeholder} entities in the order they appear in the
+   *        expected string. Its content is undefined if the parsing fails
+   * @return description of the mismatch, or null if {@code actual} satisfies {@code template}
+   */
+  @Nullable
+  public CheckFailure tryParse(String actual, CompiledTemplate template, @Nullable String message,
+      List<Placeholder> placeholders) {
+    if (metrics == MetricsSink.NO_OP) {
+      return extractPlaceholders(actual, template, Strings.emptyToNull(message), placeholders);
+    }
+    long start = System.nanoTime();
+    try {
+      return extractPlaceholders(actual, template, Strings.emptyToNull(message), placeholders);
+    } finally {
+      metrics.recordParseLatency(System.nanoTime() - start);
+    }
+  }
+
+  @Nullable
+  private CheckFailure extractPlaceholders(String actual, CompiledTemplate template,
+      @Nullable String message, List<Placeholder> placeholders) {
+    ImmutableList<String> rawPlaceholders = template.getRawPlaceholders();
 
     // Extracting actual values from the given expected result.
-    Matcher extractionMatcher = extractionPattern.matcher(actual);
-    int extractedGroups = extractionMatcher.groupCount();
-    ImmutableList.Builder<Placeholder> placeholderTokens = ImmutableList.builder();
-    if (extractionMatcher.find()) {
-      if (extractedGroups != rawPlaceholders.size()) {
-        // Should never happen. The number of groups is always equal to the number of placeholders.
-        throw new ParserException(
-            String.format("Actual result does not satisfies the expected one."));
+    String[] actualContents = engine == ExtractionEngine.SEGMENTS
+        ? template.getSegmentExtractor().extract(actual)
+        : extractWithRegex(template.getExtractionPattern(), actual);
+    if (actualContents == null) {
+      return CheckFailure.of(message, "Actual result does not satisfies the expected one. "
+          + "Actual text \"%s\" is not parsable by means of the generated pattern \"%s\"", actual,
+          template.getExpected());
+    }
+    for (int i = 0; i < actualContents.length; i++) {
+      String rawPlaceholder = rawPlaceholders.get(i);
+      String actualPlaceholderContent = actualContents[i];
+      if (rawPlaceholder.equals(actualPlaceholderContent)) {
+        continue;
       }
-      for (int i = 1; i <= extractedGroups; i++) {
-        String rawPlaceholder = rawPlaceholders.get(i - 1);
-        String actualPlaceholderContent = extractionMatcher.group(i);
-        if (rawPlaceholder.equals(actualPlaceholderContent)) {
-          continue;
-        }
-        placeholderTokens.add(buildPlaceholder(rawPlaceholder, actualPlaceholderContent));
+      Placeholder placeholder = buildPlaceholder(template, i, actualPlaceholderContent);
+      if (placeholder == null) {
+        return CheckFailure.of(message, "Actual result doesn't satisfy an expected one. "
+            + "The placeholder \"%s\" is not valid within the system, and the related text \"%s\" "
+            + "is not equals to the \"%s\"", rawPlaceholder, actualPlaceholderContent,
+            rawPlaceholder);
       }
-      return placeholderTokens.build();
+      placeholders.add(placeholder);
     }
-    throw new ParserException(String.format("Actual result does not satisfies the expected one. "
-        + "Actual text \"%s\" is not parsable by means of the generated pattern \"%s\"", actual,
-        expected));
+    return null;
+  }
+
+  /** Returns the extraction engine of this parser. */
+  public ExtractionEngine getExtractionEngine() {
+    return engine;
+  }
+
+  /** Returns the registry with the checkers of the placeholders this parser recognizes. */
+  public CheckerRegistry getCheckerRegistry() {
+    return registry;
+  }
+
+  /** Returns the sink this parser reports its measurements to. */
+  public MetricsSink getMetricsSink() {
+    return metrics;
   }
 
   /**
-   * Builds a regular expression based on a given expected string. This regular, if applied to an
-   * actual string, produces a set of actual values related to any single placeholder in the
-   * expected string.
+   * Returns a compiled representation of a given {@code expected} string. Compiled templates are
+   * cached, so repeated calls with the same string are cheap.
    *
-   * @param placeholderMatcher is a given expected string parsed by means of
-   *        {@code PLACEHOLDER_PATTERN} pattern
-   * @param expected pattern that describes a given {@code actual} data
-   * @return a regular expression that could be used to parse an actual string
+   * @param expected pattern that describes actual data
+   * @return compiled template that could be passed to {@link #parse(String, CompiledTemplate)}
    */
-  private String buildExtractionPattern(Matcher placeholderMatcher, String expected) {
-    StringBuilder extractionPatternText = new StringBuilder("(?s)(?m)");
-    int position = 0;
-    while (placeholderMatcher.find()) {
-      extractionPatternText.append(Pattern.quote(
-          replaceEscapedCharacters(expected.substring(position, placeholderMatcher.start()))));
-      if (placeholderMatcher.hitEnd()) {
-        extractionPatternText.append(GREEDY_GROUP);
-      } else {
-        extractionPatternText.append(LAZY_GROUP);
-      }
-
-      position = placeholderMatcher.end();
+  public CompiledTemplate compile(final String expected) {
+    if (metrics == MetricsSink.NO_OP) {
+      return templates.getUnchecked(expected);
     }
-    extractionPatternText.append(
-        Pattern.quote(replaceEscapedCharacters(expected.substring(position))));
-    extractionPatternText.append("$");
-    return extractionPatternText.toString();
+    // Tells a miss, which runs the loader on this thread, from a hit.
+    final boolean[] loaded = new boolean[1];
+    CompiledTemplate template;
+    try {
+      template = templates.get(expected, new Callable<CompiledTemplate>() {
+        @Override
+        public CompiledTemplate call() {
+          loaded[0] = true;
+          return buildTemplate(expected);
+        }
+      });
+    } catch (ExecutionException e) {
+      // Template building throws no checked exceptions.
+      throw new UncheckedExecutionException(e.getCause());
+    }
+    metrics.recordCacheLookup(MetricsSink.TEMPLATE_CACHE, !loaded[0]);
+    return template;
+  }
+
+  /**
+   * Returns the statistics of the compiled template cache. Useful to check that the cache size
+   * fits the number of distinct expected strings in a test suite.
+   */
+  public CacheStats getTemplateCacheStats() {
+    return templates.stats();
+  }
+
+  /** Returns the number of compiled templates currently kept by this parser. */
+  public long getTemplateCacheSize() {
+    return templates.size();
   }
 
   /**
-   * Goes through a parsed expected string, extracts all placeholders located there and combines
-   * them to a result list in the same order as they appear in the expected string.
+   * Extracts the actual content of every placeholder by means of the extraction regular expression.
    *
-   * @param placeholderMatcher is a given expected string parsed by means of
-   *        {@code PLACEHOLDER_PATTERN} pattern
-   * @return an immutable list of all the placeholders presented in the expected string
+   * @param extractionPattern has one group per placeholder
+   * @param actual string that should satisfy the expected one
+   * @return the content of every placeholder, or null if the actual string does not match
    */
-  private ImmutableList<String> extractPlaceholders(Matcher placeholderMatcher) {
-    ImmutableList.Builder<String> result = ImmutableList.builder();
-    while (placeholderMatcher.find()) {
-      result.add(replaceEscapedCharacters(placeholderMatcher.group()));
+  @Nullable
+  static String[] extractWithRegex(Pattern extractionPattern, String actual) {
+    Matcher extractionMatcher = extractionPattern.matcher(actual);
+    if (!extractionMatcher.matches()) {
+      return null;
+    }
+    String[] actualContents = new String[extractionMatcher.groupCount()];
+    for (int i = 0; i < actualContents.length; i++) {
+      actualContents[i] = extractionMatcher.group(i + 1);
     }
-    return result.build();
+    return actualContents;
   }
 
   /**
-   * Builds a {@link Placeholder} instance.
+   * Compiles a given expected string. Builds a regular expression that, if applied to an actual
+   * string, produces a set of actual values related to any single placeholder in the expected
+   * string, a {@link SegmentExtractor} that does the same without regular expressions, and
+   * collects all the placeholders in the same order as they appear in the expected
+   * string.
    *
-   * @param rawPlaceholder is a string representation of a placeholder. E.g. {date:{lenient:false}}
-   * @param placeholderContent is a string value from an actual string, that is related to this
-   *        placeholder
-   * @return new instance of {@link Placeholder}
-   * @throws ParserException problem happened during the placeholder creation
+   * @param expected pattern that describes a given {@code actual} data
+   * @return compiled representation of the expected string
    */
-  private Placeholder buildPlaceholder(String rawPlaceholder, String placeholderContent)
-      throws ParserException {
-    Placeholder placeholder = Placeholder.buildPlaceholderToken(rawPlaceholder, placeholderContent);
-    if (placeholder != null) {
-      return placeholder;
+  private CompiledTemplate buildTemplate(String expected) {
+    PlaceholderLexer.Tokens tokens = PlaceholderLexer.tokenize(expected);
+    ImmutableList<String> literals = tokens.getLiterals();
+    ImmutableList<String> rawPlaceholders = tokens.getRawPlaceholders();
+    Placeholder[] prototypes = new Placeholder[rawPlaceholders.size()];
+    StringBuilder extractionPatternText = new StringBuilder("(?s)");
+    for (int i = 0; i < rawPlaceholders.size(); i++) {
+      prototypes[i] = Placeholder.buildPlaceholderToken(rawPlaceholders.get(i), "", registry);
+      extractionPatternText.append(Pattern.quote(literals.get(i)));
+      if (i == rawPlaceholders.size() - 1 && tokens.endsWithPlaceholder()) {
+        extractionPatternText.append(GREEDY_GROUP);
+      } else {
+        extractionPatternText.append(LAZY_GROUP);
+      }
     }
-    throw new ParserException(String.format("Actual result doesn't satisfy an expected one. "
-        + "The placeholder \"%s\" is not valid within the system, and the related text \"%s\" "
-        + "is not equals to the \"%s\"", rawPlaceholder, placeholderContent, rawPlaceholder));
+    extractionPatternText.append(Pattern.quote(literals.get(literals.size() - 1)));
+    return new CompiledTemplate(expected, Pattern.compile(extractionPatternText.toString()),
+        new SegmentExtractor(literals), rawPlaceholders, prototypes);
   }
 
   /**
-   * Replaces '\{' with '{' and '\}' with '}' in a given string.
+   * Builds a {@link Placeholder} instance from the prototype of a compiled placeholder.
    *
-   * @param toReplace string than may contain elements to replace
-   * @return string with replaced elements
+   * @param template is a compiled expected string
+   * @param index of the raw placeholder in a given {@code template}
+   * @param placeholderContent is a string value from an actual string, that is related to this
+   *        placeholder
+   * @return new instance of {@link Placeholder}, or null if the placeholder is not valid within
+   *         the system
    */
-  private String replaceEscapedCharacters(String toReplace) {
-    return toReplace.replace("\\{", "{").replace("\\}", "}");
+  @Nullable
+  private Placeholder buildPlaceholder(CompiledTemplate template, int index,
+      String placeholderContent) {
+    Placeholder prototype = template.getPrototype(index);
+    return prototype != null ? prototype.withActualContent(placeholderContent) : null;
   }
 }
@@ -18,12 +18,8 @@ package com.google.testing.i18n.sanitycheck.parser;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
-import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
-import com.google.gson.reflect.TypeToken;
-import com.google.testing.i18n.sanitycheck.checkers.Checker;
+import com.google.testing.i18n.sanitycheck.checkers.CheckerRegistry;
 
-import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.Map;
 
@@ -182,8 +178,6 @@ public final class Placeholder {
   private static final String PATTERN_PARAM_NAME = "pattern";
   private static final String VALUE_PARAM_NAME = "value";
 
-  private static final Gson GSON = new Gson();
-
   private final String name;
   private final String actualContent;
   private final ImmutableMap<String, String> params;
@@ -195,39 +189,24 @@ public final class Placeholder {
    *
    * @param tokenContent text representation of the placeholder
    * @param actualContent content of a placeholder in an expected string
+   * @param registry has the checkers of the valid placeholders
    * @return instance of the {@link Placeholder}
    */
   @Nullable
-  static final Placeholder buildPlaceholderToken(String tokenContent, String actualContent) {
-    tokenContent = tokenContent.trim();
-    // Should never be false.
-    Preconditions.checkArgument(tokenContent.startsWith("{") && tokenContent.endsWith("}"));
-    String placeholderName = null;
-    Map<String, String> params = Maps.newHashMap();
-    // Checks if pattern is complex. Looks like {placeholder:{param:value}}.
-    try {
-      if (tokenContent.contains(":")) {
-        Type stringMap = new TypeToken<Map<String, Map<String, String>>>() {}.getType();
-        Map<String, Map<String, String>> parsed = GSON.fromJson(tokenContent, stringMap);
-        placeholderName = parsed.keySet().iterator().next();
-        params = parsed.get(placeholderName);
-      } else {
-        placeholderName = tokenContent.substring(1, tokenContent.length() - 1);
-        if (!placeholderName.equals(placeholderName.trim())) {
-          return null;
-        }
-      }
-    } catch (JsonSyntaxException e) {
-      // Means that the token does not satisfy the placeholder syntax. Returns null.
-      return null;
-    }
+  static final Placeholder buildPlaceholderToken(String tokenContent, String actualContent,
+      CheckerRegistry registry) {
+    PlaceholderSpec spec = PlaceholderSpec.of(tokenContent);
     // Returns a valid placeholder only if a related checker exists.
-    if (Checker.CHECKERS.containsKey(placeholderName)) {
-      return Placeholder.builder(placeholderName, actualContent, params).build();
+    if (spec != null && registry.contains(spec.getName())) {
+      return spec.newPlaceholder(actualContent);
     } else {
       return null;
     }
+  }
 
+  /** Creates a placeholder with the name and params of a given spec and a given content. */
+  static Placeholder fromSpec(PlaceholderSpec spec, String actualContent) {
+    return new Placeholder(spec.getName(), actualContent, spec.getParams());
   }
 
   /**
@@ -277,6 +256,14 @@ public final class Placeholder {
     this.params = Preconditions.checkNotNull(params);
   }
 
+  /**
+   * Returns a placeholder with the same name and params as this one and a given actual content.
+   * Cheaper than {@link #builder(Placeholder)}, because params are shared.
+   */
+  Placeholder withActualContent(String actualContent) {
+    return new Placeholder(name, actualContent, params);
+  }
+
   public String getActualContent() {
     return actualContent;
   }
@@ -0,0 +1,150 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.parser;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A single-pass scanner that splits an expected string into static text segments and raw
+ * placeholders.
+ * <p>
+ * A placeholder starts with a '{' that is not escaped by a preceding '\' and ends with the first
+ * following '}' that is not escaped, together with all the '}' characters that immediately follow
+ * it. This way params of a placeholder like {date:{lenient:false}} are part of the placeholder. A
+ * '{' without a matching '}' is static text. Escape sequences \{ and \} are replaced with { and }
+ * in both static text and placeholders.
+ */
+final class PlaceholderLexer {
+
+  /** Do not instantiate */
+  private PlaceholderLexer() {}
+
+  /**
+   * An immutable result of the scan. There is always one more static text segment than there are
+   * placeholders: segment i precedes placeholder i, and the last segment follows the last one.
+   */
+  static final class Tokens {
+    private final ImmutableList<String> literals;
+    private final ImmutableList<String> rawPlaceholders;
+    private final boolean endsWithPlaceholder;
+
+    private Tokens(ImmutableList<String> literals, ImmutableList<String> rawPlaceholders,
+        boolean endsWithPlaceholder) {
+      Preconditions.checkArgument(literals.size() == rawPlaceholders.size() + 1);
+      this.literals = literals;
+      this.rawPlaceholders = rawPlaceholders;
+      this.endsWithPlaceholder = endsWithPlaceholder;
+    }
+
+    /** Returns static text segments with escaped characters already replaced. */
+    ImmutableList<String> getLiterals() {
+      return literals;
+    }
+
+    /** Returns raw placeholders with escaped characters already replaced. */
+    ImmutableList<String> getRawPlaceholders() {
+      return rawPlaceholders;
+    }
+
+    /** Returns true if the last placeholder ends exactly where the expected string ends. */
+    boolean endsWithPlaceholder() {
+      return endsWithPlaceholder;
+    }
+  }
+
+  /**
+   * Scans a given expected string.
+   *
+   * @param expected pattern that describes actual data
+   * @return static text segments and raw placeholders of the expected string
+   */
+  static Tokens tokenize(String expected) {
+    ImmutableList.Builder<String> literals = ImmutableList.builder();
+    ImmutableList.Builder<String> rawPlaceholders = ImmutableList.builder();
+    StringBuilder literal = new StringBuilder();
+    boolean endsWithPlaceholder = false;
+    int length = expected.length();
+    int position = 0;
+    while (position < length) {
+      char c = expected.charAt(position);
+      if (c == '{' && !isEscaped(expected, position)) {
+        int close = findClosingBrace(expected, position + 1);
+        if (close < 0) {
+          // No placeholder could start here or later, the rest is static text.
+          appendUnescaped(expected, position, length, literal);
+          break;
+        }
+        int end = close + 1;
+        while (end < length && expected.charAt(end) == '}') {
+          end++;
+        }
+        literals.add(literal.toString());
+        literal.setLength(0);
+        StringBuilder rawPlaceholder = new StringBuilder(end - position);
+        appendUnescaped(expected, position, end, rawPlaceholder);
+        rawPlaceholders.add(rawPlaceholder.toString());
+        endsWithPlaceholder = end == length;
+        position = end;
+        continue;
+      }
+      if (c == '\\' && position + 1 < length && isBrace(expected.charAt(position + 1))) {
+        // Skips the escape character, the brace itself is appended on the next iteration.
+        position++;
+        continue;
+      }
+      literal.append(c);
+      position++;
+    }
+    literals.add(literal.toString());
+    return new Tokens(literals.build(), rawPlaceholders.build(), endsWithPlaceholder);
+  }
+
+  /**
+   * Returns the index of the first '}' at or after a given position that is not escaped, or -1 if
+   * there is no such character.
+   */
+  private static int findClosingBrace(String expected, int from) {
+    for (int i = from; i < expected.length(); i++) {
+      if (expected.charAt(i) == '}' && !isEscaped(expected, i)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Appends the characters of a given range to a given builder, replacing '\{' with '{' and '\}'
+   * with '}'.
+   */
+  private static void appendUnescaped(String text, int start, int end, StringBuilder result) {
+    for (int i = start; i < end; i++) {
+      char c = text.charAt(i);
+      if (c == '\\' && i + 1 < end && isBrace(text.charAt(i + 1))) {
+        continue;
+      }
+      result.append(c);
+    }
+  }
+
+  private static boolean isEscaped(String text, int position) {
+    return position > 0 && text.charAt(position - 1) == '\\';
+  }
+
+  private static boolean isBrace(char c) {
+    return c == '{' || c == '}';
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.parser;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * An immutable object that represents the syntax of a raw placeholder, like
+ * {date:{lenient:false}}, without its actual content: the placeholder name and its params.
+ * <p>
+ * Specs are interned: parsing the same raw placeholder text twice returns the same instance, so
+ * templates that share placeholders also share their specs.
+ */
+public final class PlaceholderSpec {
+
+  /** Maximum number of distinct raw placeholders kept in the intern table. */
+  private static final int INTERN_TABLE_SIZE = 4096;
+
+  private static final LoadingCache<String, Optional<PlaceholderSpec>> INTERNED =
+      CacheBuilder.newBuilder()
+          .maximumSize(INTERN_TABLE_SIZE)
+          .build(new CacheLoader<String, Optional<PlaceholderSpec>>() {
+            @Override
+            public Optional<PlaceholderSpec> load(String rawPlaceholder) {
+              return Optional.fromNullable(PlaceholderSpecParser.parse(rawPlaceholder));
+            }
+          });
+
+  private final String name;
+  private final ImmutableMap<String, String> params;
+
+  PlaceholderSpec(String name, ImmutableMap<String, String> params) {
+    this.name = Preconditions.checkNotNull(name);
+    this.params = Preconditions.checkNotNull(params);
+  }
+
+  /**
+   * Returns the interned spec of a given raw placeholder. Could also return null if a given
+   * {@code rawPlaceholder} does not satisfy the placeholder syntax.
+   *
+   * @param rawPlaceholder text representation of the placeholder. E.g. {date:{lenient:false}}
+   * @return instance of the {@link PlaceholderSpec}
+   */
+  @Nullable
+  public static PlaceholderSpec of(String rawPlaceholder) {
+    return INTERNED.getUnchecked(rawPlaceholder).orNull();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public ImmutableMap<String, String> getParams() {
+    return params;
+  }
+
+  /**
+   * Creates a {@link Placeholder} with the name and params of this spec.
+   *
+   * @param actualContent content of a placeholder in an actual string
+   * @return new instance of {@link Placeholder}
+   */
+  public Placeholder newPlaceholder(String actualContent) {
+    return Placeholder.fromSpec(this, actualContent);
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.parser;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * A parser of the raw placeholder syntax described in the {@link Placeholder} class javadoc. It
+ * accepts the same simplified JSON as Gson does in its lenient mode: names and values could
+ * be unquoted or surrounded by ' or ", names are separated from values by ':', '=' or '=>' and
+ * members are separated by ',' or ';'.
+ */
+final class PlaceholderSpecParser {
+
+  private final String text;
+  private int position;
+
+  private PlaceholderSpecParser(String text) {
+    this.text = text;
+  }
+
+  /**
+   * Parses a given raw placeholder. Returns null if it does not satisfy the placeholder syntax.
+   *
+   * @param rawPlaceholder text representation of the placeholder. E.g. {date:{lenient:false}}
+   * @return instance of the {@link PlaceholderSpec}
+   */
+  @Nullable
+  static PlaceholderSpec parse(String rawPlaceholder) {
+    String tokenContent = rawPlaceholder.trim();
+    if (!tokenContent.startsWith("{") || !tokenContent.endsWith("}") || tokenContent.length() < 2) {
+      return null;
+    }
+    // Checks if pattern is complex. Looks like {placeholder:{param:value}}.
+    if (tokenContent.contains(":")) {
+      return new PlaceholderSpecParser(tokenContent).parseComplex();
+    }
+    String placeholderName = tokenContent.substring(1, tokenContent.length() - 1);
+    if (!placeholderName.equals(placeholderName.trim())) {
+      return null;
+    }
+    return new PlaceholderSpec(placeholderName, ImmutableMap.<String, String>of());
+  }
+
+  /**
+   * Parses {name:{param:value,...},...}. Only the first member of the outer object is used, but
+   * the other members should also be well formed.
+   */
+  @Nullable
+  private PlaceholderSpec parseComplex() {
+    if (!consume('{')) {
+      return null;
+    }
+    String placeholderName = null;
+    ImmutableMap<String, String> params = null;
+    if (!consume('}')) {
+      do {
+        String name = readString();
+        if (name == null || !readNameSeparator() || !consume('{')) {
+          return null;
+        }
+        Map<String, String> members = readParams();
+        if (members == null) {
+          return null;
+        }
+        if (placeholderName == null) {
+          placeholderName = name;
+          params = ImmutableMap.copyOf(members);
+        }
+      } while (readMemberSeparator());
+      if (!consume('}')) {
+        return null;
+      }
+    }
+    skipWhitespace();
+    if (placeholderName == null || position != text.length()) {
+      return null;
+    }
+    return new PlaceholderSpec(placeholderName, params);
+  }
+
+  /** Reads params of the inner object after its opening brace, including the closing one. */
+  @Nullable
+  private Map<String, String> readParams() {
+    Map<String, String> params = new LinkedHashMap<String, String>();
+    if (consume('}')) {
+      return params;
+    }
+    do {
+      String name = readString();
+      if (name == null || !readNameSeparator()) {
+        return null;
+      }
+      String value = readString();
+      // Duplicate names are illegal, null values are not supported.
+      if (value == null || params.put(name, value) != null) {
+        return null;
+      }
+    } while (readMemberSeparator());
+    return consume('}') ? params : null;
+  }
+
+  /** Reads a quoted or an unquoted string. Returns null if there is no valid string. */
+  @Nullable
+  private String readString() {
+    skipWhitespace();
+    if (position >= text.length()) {
+      return null;
+    }
+    char quote = text.charAt(position);
+    if (quote == '\'' || quote == '"') {
+      return readQuoted(quote);
+    }
+    int start = position;
+    while (position < text.length() && !isLiteralDelimiter(text.charAt(position))) {
+      position++;
+    }
+    if (start == position) {
+      return null;
+    }
+    String literal = text.substring(start, position);
+    return literal.equals("null") ? null : literal;
+  }
+
+  /** Reads a string surrounded by a given quote and replaces escape sequences. */
+  @Nullable
+  private String readQuoted(char quote) {
+    StringBuilder result = new StringBuilder();
+    position++;
+    while (position < text.length()) {
+      char c = text.charAt(position++);
+      if (c == quote) {
+        return result.toString();
+      }
+      if (c != '\\') {
+        result.append(c);
+        continue;
+      }
+      if (position >= text.length()) {
+        return null;
+      }
+      char escaped = text.charAt(position++);
+      switch (escaped) {
+        case 'u':
+          if (position + 4 > text.length()) {
+            return null;
+          }
+          try {
+            result.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+          } catch (NumberFormatException e) {
+            return null;
+          }
+          position += 4;
+          break;
+        case 't':
+          result.append('\t');
+          break;
+        case 'b':
+          result.append('\b');
+          break;
+        case 'n':
+          result.append('\n');
+          break;
+        case 'r':
+          result.append('\r');
+          break;
+        case 'f':
+          result.append('\f');
+          break;
+        default:
+          result.append(escaped);
+          break;
+      }
+    }
+    return null;
+  }
+
+  /** Reads ':', '=' or '=>'. */
+  private boolean readNameSeparator() {
+    if (consume(':')) {
+      return true;
+    }
+    if (consume('=')) {
+      if (position < text.length() && text.charAt(position) == '>') {
+        position++;
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /** Reads ',' or ';'. */
+  private boolean readMemberSeparator() {
+    return consume(',') || consume(';');
+  }
+
+  /** Skips whitespace and consumes a given character if it is the next one. */
+  private boolean consume(char expected) {
+    skipWhitespace();
+    if (position < text.length() && text.charAt(position) == expected) {
+      position++;
+      return true;
+    }
+    return false;
+  }
+
+  private void skipWhitespace() {
+    while (position < text.length() && isWhitespace(text.charAt(position))) {
+      position++;
+    }
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+  }
+
+  /** Characters that terminate an unquoted name or value. */
+  private static boolean isLiteralDelimiter(char c) {
+    switch (c) {
+      case '/':
+      case '\\':
+      case ';':
+      case '#':
+      case '=':
+      case '{':
+      case '}':
+      case '[':
+      case ']':
+      case ':':
+      case ',':
+      case ' ':
+      case '\t':
+      case '\f':
+      case '\r':
+      case '\n':
+      case '\'':
+      case '"':
+        return true;
+      default:
+        return false;
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.parser;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nullable;
+
+/**
+ * An object that extracts the actual content of every placeholder of a compiled expected string
+ * without regular expressions. It anchors on the static text segments between placeholders and
+ * assigns the spans between them to placeholders, which takes time linear in the length of the
+ * actual string.
+ * <p>
+ * The result is the same as the one of the extraction regular expression built by {@link Parser}:
+ * <ul>
+ * <li>every placeholder takes the shortest span that still lets the rest of the actual string
+ * match, except for a placeholder at the very end of the expected string, which takes the rest of
+ * the actual string;
+ * <li>the actual string must start with the first static segment and end with the last one, like
+ * with {@link java.util.regex.Matcher#matches}.
+ * </ul>
+ * Every other static segment is searched for by means of the Knuth-Morris-Pratt algorithm, and
+ * every search starts where the previous one ended, so no character is visited more than twice.
+ */
+final class SegmentExtractor {
+
+  private final String[] literals;
+  /** Knuth-Morris-Pratt failure function of every static segment. */
+  private final int[][] failures;
+
+  SegmentExtractor(ImmutableList<String> literals) {
+    this.literals = literals.toArray(new String[literals.size()]);
+    this.failures = new int[this.literals.length][];
+    for (int i = 0; i < this.literals.length; i++) {
+      failures[i] = buildFailureFunction(this.literals[i]);
+    }
+  }
+
+  /**
+   * Extracts the actual content of every placeholder from a given actual string.
+   *
+   * @param actual string that should satisfy the expected one
+   * @return the content of every placeholder in the same order as placeholders appear in the
+   *         expected string, or null if the actual string does not satisfy the expected one
+   */
+  @Nullable
+  String[] extract(String actual) {
+    int placeholders = literals.length - 1;
+    String[] result = new String[placeholders];
+    int last = literals.length - 1;
+    if (placeholders == 0) {
+      return actual.equals(literals[0]) ? result : null;
+    }
+    int position = literals[0].length();
+    // The last static segment ends the actual string. It is empty if the expected string ends with
+    // a placeholder, which then takes the rest of the actual string.
+    int end = actual.length() - literals[last].length();
+    if (end < position || !actual.startsWith(literals[0]) || !actual.endsWith(literals[last])) {
+      return null;
+    }
+    for (int i = 1; i < last; i++) {
+      int found = find(actual, i, position, end);
+      if (found < 0) {
+        return null;
+      }
+      result[i - 1] = actual.substring(position, found);
+      position = found + literals[i].length();
+    }
+    result[last - 1] = actual.substring(position, end);
+    return result;
+  }
+
+  /**
+   * Returns the first index at or after {@code from} where the static segment with a given index
+   * occurs in {@code text} and ends at or before {@code limit}, or -1 if there is no such
+   * occurrence.
+   *
+   * @param text to search in
+   * @param literalIndex is the index of the static segment
+   * @param from is the first index to consider
+   * @param limit is the index the occurrence should end at or before
+   */
+  private int find(String text, int literalIndex, int from, int limit) {
+    String literal = literals[literalIndex];
+    int[] failure = failures[literalIndex];
+    int length = literal.length();
+    if (length == 0) {
+      return from;
+    }
+    int matched = 0;
+    for (int i = from; i < limit; i++) {
+      char c = text.charAt(i);
+      while (matched > 0 && literal.charAt(matched) != c) {
+        matched = failure[matched - 1];
+      }
+      if (literal.charAt(matched) == c) {
+        matched++;
+      }
+      if (matched == length) {
+        return i - length + 1;
+      }
+    }
+    return -1;
+  }
+
+  private static int[] buildFailureFunction(String literal) {
+    int[] failure = new int[literal.length()];
+    int matched = 0;
+    for (int i = 1; i < literal.length(); i++) {
+      while (matched > 0 && literal.charAt(matched) != literal.charAt(i)) {
+        matched = failure[matched - 1];
+      }
+      if (literal.charAt(matched) == literal.charAt(i)) {
+        matched++;
+      }
+      failure[i] = matched;
+    }
+    return failure;
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import com.ibm.icu.util.ULocale;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the {@link BatchChecker} class functionality.
+ */
+@RunWith(JUnit4.class)
+public class BatchCheckerTest extends TestCase {
+
+  @Test
+  public void testCheckAll_ReportsEveryFailure() {
+    CheckReport report = SanityCheckProcessor.checkAll(ImmutableList.of(
+        CheckRequest.of("{number} items", "12 items", ULocale.US),
+        CheckRequest.of("{number} items", "??? items", ULocale.US),
+        CheckRequest.of("Sorted {sorting}", "Sorted a,b", ULocale.GERMANY),
+        CheckRequest.of("Sorted {sorting}", "Sorted b,a", ULocale.GERMANY)));
+    assertEquals(4, report.getResults().size());
+    assertEquals(2, report.getFailureCount());
+    assertTrue(report.getResults().get(0).isPassed());
+    assertFalse(report.getResults().get(1).isPassed());
+    assertTrue(report.getResults().get(2).isPassed());
+    assertFalse(report.getResults().get(3).isPassed());
+    assertEquals(ImmutableList.of(report.getRequests().get(1), report.getRequests().get(3)),
+        report.getFailedRequests());
+    try {
+      report.assertPassed();
+      fail("The report contains failures");
+    } catch (AssertionError e) {
+      assertTrue(e.getMessage().startsWith("2 of 4 checks failed."));
+    }
+  }
+
+  @Test
+  public void testCheckAll_GroupsByLocale() {
+    List<CheckRequest> requests = new ArrayList<CheckRequest>();
+    for (int i = 0; i < BatchChecker.CHUNK_SIZE + 1; i++) {
+      requests.add(CheckRequest.of("{number}", String.valueOf(i), ULocale.US));
+      requests.add(CheckRequest.of("{number}", String.valueOf(i), ULocale.FRANCE));
+    }
+    final AtomicInteger tasks = new AtomicInteger();
+    Executor countingExecutor = new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        tasks.incrementAndGet();
+        MoreExecutors.directExecutor().execute(command);
+      }
+    };
+    CheckReport report = SanityCheckProcessor.checkAll(requests, countingExecutor);
+    assertTrue(report.toString(), report.isPassed());
+    assertEquals(requests, report.getRequests());
+    // Two chunks per locale.
+    assertEquals(4, tasks.get());
+  }
+
+  @Test
+  public void testCheckAll_UnexpectedExceptionReported() {
+    CheckReport report = SanityCheckProcessor.checkAll(ImmutableList.of(
+        CheckRequest.of("{number} items", "12 items", ULocale.US),
+        CheckRequest.of("{tokenization}", "a b", ULocale.US)));
+    assertTrue(report.getResults().get(0).isPassed());
+    assertFalse(report.getResults().get(1).isPassed());
+    assertNotNull(report.getResults().get(1).getMessage());
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.testing.i18n.sanitycheck.checkers.AbstractChecker;
+import com.google.testing.i18n.sanitycheck.checkers.CheckFailure;
+import com.google.testing.i18n.sanitycheck.checkers.Checker;
+import com.google.testing.i18n.sanitycheck.checkers.Warmable;
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import com.ibm.icu.util.ULocale;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the {@link LocaleWarmer} class functionality.
+ */
+@RunWith(JUnit4.class)
+public class LocaleWarmerTest extends TestCase {
+
+  /** Records the warmed up locales and fails for the root locale. */
+  private static class RecordingChecker extends AbstractChecker implements Warmable {
+    final List<ULocale> warmedUp = new ArrayList<ULocale>();
+
+    @Override
+    public CheckFailure evaluate(Placeholder target, ULocale locale, String message) {
+      return null;
+    }
+
+    @Override
+    public synchronized void warmUp(ULocale locale) {
+      if (locale.equals(ULocale.ROOT)) {
+        throw new IllegalStateException("Test exception");
+      }
+      warmedUp.add(locale);
+    }
+  }
+
+  @Test
+  public void testWarmUp_ReportsEveryLocale() {
+    RecordingChecker checker = new RecordingChecker();
+    LocaleWarmer warmer = new LocaleWarmer(ImmutableList.<Checker>of(checker),
+        MoreExecutors.directExecutor());
+    ImmutableMap<ULocale, Long> timings = Futures.getUnchecked(warmer.warmUp(
+        ImmutableList.of(ULocale.JAPAN, ULocale.ROOT, ULocale.US, ULocale.JAPAN)));
+    assertEquals(ImmutableList.of(ULocale.JAPAN, ULocale.ROOT, ULocale.US),
+        timings.keySet().asList());
+    for (long millis : timings.values()) {
+      assertTrue(millis >= 0);
+    }
+    assertEquals(ImmutableList.of(ULocale.JAPAN, ULocale.US), checker.warmedUp);
+  }
+
+  @Test
+  public void testWarmUp_RegisteredCheckers() {
+    ImmutableList<ULocale> locales =
+        ImmutableList.of(new ULocale("ja"), new ULocale("th"), ULocale.GERMANY);
+    ImmutableMap<ULocale, Long> timings = SanityCheckProcessor.warmUp(locales);
+    assertEquals(locales, timings.keySet().asList());
+    SanityCheckProcessor.assertI18nSanityCheck("{number}", "1.234,5", ULocale.GERMANY);
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.testing.i18n.sanitycheck.checkers.Checker;
+import com.google.testing.i18n.sanitycheck.checkers.CheckerRegistry;
+import com.google.testing.i18n.sanitycheck.parser.Parser;
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import com.ibm.icu.util.ULocale;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import javax.annotation.Nullable;
+
+/**
+ * Tests the {@link SanityCheckEngine} class functionality.
+ */
+@RunWith(JUnit4.class)
+public class SanityCheckEngineTest extends TestCase {
+
+  @Test
+  public void testCheck_DefaultLocale() {
+    SanityCheckEngine engine = SanityCheckEngine.builder().defaultLocale(ULocale.GERMANY).build();
+    engine.getCheckerRegistry().register("german", new Checker() {
+      @Override
+      public void check(Placeholder target, ULocale locale, @Nullable String message) {
+        assertEquals(ULocale.GERMANY, locale);
+      }
+    });
+    assertTrue(engine.check("Locale {german}", "Locale x").isPassed());
+    assertFalse(engine.check("Locale {german}", "Locale x", ULocale.US).isPassed());
+  }
+
+  @Test
+  public void testCheck_EnginesHaveOwnTemplateCaches() {
+    SanityCheckEngine first = SanityCheckEngine.builder().templateCacheSize(4).build();
+    SanityCheckEngine second = SanityCheckEngine.builder().templateCacheSize(4).build();
+    first.check("Sorted {sorting}", "Sorted a,b");
+    first.check("Sorted {sorting}", "Sorted b,c");
+    assertEquals(1, first.getTemplateCacheStats().hitCount());
+    assertEquals(1, first.getTemplateCacheStats().missCount());
+    assertEquals(0, second.getTemplateCacheStats().requestCount());
+  }
+
+  @Test
+  public void testCheck_EnginesHaveOwnCheckers() {
+    SanityCheckEngine custom = SanityCheckEngine.builder().build();
+    SanityCheckEngine plain = SanityCheckEngine.builder().build();
+    assertNotSame(custom.getCheckerRegistry(), CheckerRegistry.getDefault());
+    assertNotSame(custom.getCheckerRegistry().get("number"),
+        plain.getCheckerRegistry().get("number"));
+    custom.getCheckerRegistry().register("shout", new Checker() {
+      @Override
+      public void check(Placeholder target, ULocale locale, @Nullable String message) {
+        if (!target.getActualContent().equals(target.getActualContent().toUpperCase())) {
+          throw new AssertionError("Not loud enough");
+        }
+      }
+    });
+    assertTrue(custom.check("Say {shout}", "Say HI").isPassed());
+    assertFalse(custom.check("Say {shout}", "Say hi").isPassed());
+    assertFalse(plain.check("Say {shout}", "Say HI").isPassed());
+  }
+
+  @Test
+  public void testCheckAll_UsesGivenExecutor() {
+    SanityCheckEngine engine =
+        SanityCheckEngine.builder().executor(MoreExecutors.directExecutor()).build();
+    CheckReport report = engine.checkAll(ImmutableList.of(
+        CheckRequest.of("{locale}", "en_US", ULocale.US),
+        CheckRequest.of("{locale}", "zz_ZZ", ULocale.US)));
+    assertEquals(1, report.getFailureCount());
+  }
+
+  @Test
+  public void testParseExtractionEngine_FallsBackToSegments() {
+    assertEquals(Parser.ExtractionEngine.REGEX, SanityCheckProcessor.parseExtractionEngine("regex"));
+    assertEquals(Parser.ExtractionEngine.SEGMENTS,
+        SanityCheckProcessor.parseExtractionEngine(null));
+    assertEquals(Parser.ExtractionEngine.SEGMENTS,
+        SanityCheckProcessor.parseExtractionEngine("SEGMENT"));
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck;
+
+import com.ibm.icu.util.ULocale;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the {@link SanityTemplate} class functionality.
+ */
+@RunWith(JUnit4.class)
+public class SanityTemplateTest extends TestCase {
+
+  private static final SanityTemplate TEMPLATE =
+      SanityTemplate.compile("Sorted {sorting}, ordered {sorting:{lenient:false}}, {locale}");
+
+  @Test
+  public void testCheck_ManyActualStrings() {
+    TEMPLATE.check("Sorted a,b,c, ordered a,A,b, en_US", ULocale.US);
+    TEMPLATE.check("Sorted x,y, ordered b,c, fr_FR", ULocale.FRANCE);
+    assertEquals("Sorted {sorting}, ordered {sorting:{lenient:false}}, {locale}",
+        TEMPLATE.getExpected());
+  }
+
+  @Test
+  public void testCheck_PlaceholderLocale() {
+    SanityTemplate.compile("{date:{locale:'ja'}}").check("2008年12月31日", ULocale.US);
+  }
+
+  @Test
+  public void testCheck_InvalidStaticText() {
+    boolean failed = false;
+    try {
+      TEMPLATE.check("Unsorted a,b,c, ordered a,b, en_US", ULocale.US);
+    } catch (AssertionError e) {
+      failed = true;
+    }
+    assertTrue("Wrong static text. Should fail.", failed);
+  }
+
+  @Test
+  public void testCheck_InvalidPlaceholder() {
+    boolean failed = false;
+    try {
+      TEMPLATE.check("Sorted c,b,a, ordered a,b, en_US", ULocale.US);
+    } catch (AssertionError e) {
+      failed = true;
+    }
+    assertTrue("Wrong sorting order. Should fail.", failed);
+  }
+
+  @Test
+  public void testEvaluate_Passed() {
+    CheckResult result = TEMPLATE.evaluate("Sorted a,b,c, ordered a,A,b, en_US", ULocale.US);
+    assertTrue(result.isPassed());
+    assertEquals(CheckResult.NO_PLACEHOLDER, result.getFailedPlaceholderIndex());
+    assertNull(result.getFailedPlaceholder());
+    assertNull(result.getMessage());
+    result.assertPassed();
+  }
+
+  @Test
+  public void testEvaluate_InvalidStaticText() {
+    CheckResult result = TEMPLATE.evaluate("Unsorted a,b,c, ordered a,b, en_US", ULocale.US);
+    assertFalse(result.isPassed());
+    assertEquals(CheckResult.NO_PLACEHOLDER, result.getFailedPlaceholderIndex());
+    assertNotNull(result.getMessage());
+  }
+
+  @Test
+  public void testEvaluate_LineBreakAroundPlaceholder() {
+    assertFalse(SanityTemplate.compile("{datetime}")
+        .evaluate("Dec 1, 2014, 10:00 PM\nGARBAGE 123", ULocale.US).isPassed());
+    assertFalse(SanityTemplate.compile("{date} is today")
+        .evaluate("ERROR boom\nDec 1, 2014 is today", ULocale.US).isPassed());
+    assertTrue(SanityTemplate.compile("{date} is today")
+        .evaluate("Dec 1, 2014 is today", ULocale.US).isPassed());
+  }
+
+  @Test
+  public void testEvaluate_InvalidPlaceholder() {
+    CheckResult result =
+        TEMPLATE.evaluate("Sorted a,b, ordered b,a, en_US", ULocale.US, "Custom message");
+    assertFalse(result.isPassed());
+    assertEquals(1, result.getFailedPlaceholderIndex());
+    assertEquals("b,a", result.getFailedPlaceholder().getActualContent());
+    assertEquals("Custom message", result.getMessage());
+    try {
+      result.assertPassed();
+      fail("Wrong sorting order. Should fail.");
+    } catch (AssertionError e) {
+      assertEquals("Custom message", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testEvaluate_ConcurrentPlaceholders() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      SanityTemplate concurrent = TEMPLATE.withPlaceholderPool(pool);
+      assertEquals(TEMPLATE.getExpected(), concurrent.getExpected());
+      assertTrue(concurrent.evaluate("Sorted a,b,c, ordered a,A,b, en_US", ULocale.US)
+          .isPassed());
+      CheckResult result = concurrent.evaluate("Sorted b,a, ordered b,a, zz_ZZ", ULocale.US);
+      assertFalse(result.isPassed());
+      // The first failed placeholder is reported, whatever task fails first.
+      assertEquals(0, result.getFailedPlaceholderIndex());
+      result = concurrent.evaluate("Sorted a,b, ordered a,b, zz_ZZ", ULocale.US);
+      assertEquals(2, result.getFailedPlaceholderIndex());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testCheck_StaticMethod() {
+    assertTrue(SanityCheckProcessor.check("{number} items", "12 items", ULocale.US).isPassed());
+    assertFalse(SanityCheckProcessor.check("{number} items", "twelve things", ULocale.US)
+        .isPassed());
+    CheckResult result =
+        SanityCheckProcessor.check("Custom", "{number} items", "twelve things", ULocale.US);
+    assertFalse(result.isPassed());
+    assertEquals("Custom", result.getMessage());
+  }
+
+  @Test
+  public void testCheck_SharedBetweenThreads() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      Future<?>[] results = new Future<?>[16];
+      for (int i = 0; i < results.length; i++) {
+        results[i] = executor.submit(new Runnable() {
+          @Override
+          public void run() {
+            TEMPLATE.check("Sorted a,b, ordered a,b, de_DE", ULocale.GERMANY);
+          }
+        });
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+  }
+}
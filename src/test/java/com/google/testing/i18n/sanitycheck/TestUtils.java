@@ -15,14 +15,17 @@
  */
 package com.google.testing.i18n.sanitycheck;
 
-import com.google.common.collect.Lists;
+import com.google.common.collect.ImmutableList;
 
 import com.ibm.icu.text.NumberFormat;
 import com.ibm.icu.text.RuleBasedNumberFormat;
 import com.ibm.icu.util.ULocale;
 
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.text.ParsePosition;
 import java.util.Date;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -32,7 +35,8 @@ public class TestUtils {
 
   private static final Random rand = new Random(42);
 
-  private static final List<ULocale> PREDEF_LOCALES = Lists.newArrayList(ULocale.CANADA,
+  /** Locales of various scripts and formatting conventions, including the pseudo locales. */
+  public static final ImmutableList<ULocale> PREDEF_LOCALES = ImmutableList.of(ULocale.CANADA,
       ULocale.CANADA_FRENCH,
       ULocale.CHINA,
       ULocale.FRANCE,
@@ -134,4 +138,24 @@ public class TestUtils {
     } while (bits - val + (n - 1) < 0L);
     return val;
   }
+
+  /**
+   * Returns an answer to {@code parse(String, ParsePosition)} that consumes the whole text and
+   * returns given results one after another, repeating the last one.
+   *
+   * @param results to return from consecutive calls
+   * @return answer for a mocked ICU format
+   */
+  public static Answer<Object> consumingAll(final Object... results) {
+    return new Answer<Object>() {
+      private int calls;
+
+      @Override
+      public Object answer(InvocationOnMock invocation) {
+        Object[] arguments = invocation.getArguments();
+        ((ParsePosition) arguments[1]).setIndex(((String) arguments[0]).length());
+        return results[Math.min(calls++, results.length - 1)];
+      }
+    };
+  }
 }
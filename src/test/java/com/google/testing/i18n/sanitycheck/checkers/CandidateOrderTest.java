@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.i18n.sanitycheck.metrics.MetricsSink;
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import com.ibm.icu.text.DateFormat;
+import com.ibm.icu.util.ULocale;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+/** Tests the {@link CandidateOrder} class functionality. */
+@RunWith(JUnit4.class)
+public class CandidateOrderTest extends TestCase {
+
+  @Test
+  public void testRecordMatch_MovesCandidateForward() {
+    CandidateOrder.Ranking ranking = new CandidateOrder().get("number", ULocale.US, true, 3);
+    assertTrue(Arrays.equals(new int[] {0, 1, 2}, ranking.order()));
+    ranking.recordMatch(2);
+    assertTrue(Arrays.equals(new int[] {2, 0, 1}, ranking.order()));
+    ranking.recordMatch(1);
+    ranking.recordMatch(1);
+    assertTrue(Arrays.equals(new int[] {1, 2, 0}, ranking.order()));
+  }
+
+  @Test
+  public void testSaveAndLoad() throws Exception {
+    CandidateOrder learned = new CandidateOrder();
+    learned.get("number", ULocale.FRANCE, false, 3).recordMatch(2);
+    StringWriter saved = new StringWriter();
+    learned.save(saved);
+
+    CandidateOrder loaded = new CandidateOrder();
+    loaded.load(new StringReader(saved.toString() + "malformed line\n"));
+    assertTrue(Arrays.equals(new int[] {2, 0, 1},
+        loaded.get("number", ULocale.FRANCE, false, 3).order()));
+    assertTrue(Arrays.equals(new int[] {0, 1, 2},
+        loaded.get("number", ULocale.FRANCE, true, 3).order()));
+  }
+
+  @Test
+  public void testLoad_IgnoresChangedCandidateList() throws Exception {
+    CandidateOrder order = new CandidateOrder();
+    order.load(new StringReader("number\ten_US\ttrue\t0,5\n"));
+    assertTrue(Arrays.equals(new int[] {0, 1, 2},
+        order.get("number", ULocale.US, true, 3).order()));
+  }
+
+  @Test
+  public void testTimeDateChecker_LearnsMatchingFormat() {
+    TimeDateChecker.DateFormatProducer producer = new TimeDateChecker.DateFormatProducer() {
+      @Override
+      public ImmutableList<DateFormat> get(Placeholder target, ULocale locale) {
+        return ImmutableList.of(DateFormat.getTimeInstance(DateFormat.SHORT, locale),
+            DateFormat.getDateInstance(DateFormat.SHORT, locale));
+      }
+    };
+    CandidateOrder order = new CandidateOrder();
+    TimeDateChecker checker =
+        new TimeDateChecker(producer, new DateFormatCache(4), MetricsSink.NO_OP, order);
+    assertNull(checker.evaluate(Placeholder.builder("date", "12/31/08").build(), ULocale.US,
+        null));
+    assertTrue(Arrays.equals(new int[] {1, 0},
+        order.get(producer.getClass().getName(), ULocale.US, true, 2).order()));
+  }
+}
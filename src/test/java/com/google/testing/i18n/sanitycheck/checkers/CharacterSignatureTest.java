@@ -0,0 +1,57 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests the {@link CharacterSignature} class functionality. */
+@RunWith(JUnit4.class)
+public class CharacterSignatureTest extends TestCase {
+
+  @Test
+  public void testOf_DigitRuns() {
+    assertEquals(3, CharacterSignature.of("12/01/2014").getDigitRuns());
+    assertEquals(2, CharacterSignature.of("١٣ ٢٠").getDigitRuns());
+    assertEquals(0, CharacterSignature.of("hello").getDigitRuns());
+    assertFalse(CharacterSignature.of("").hasDigits());
+  }
+
+  @Test
+  public void testOf_StartsWithDigit() {
+    assertTrue(CharacterSignature.of("1,234").startsWithDigit());
+    assertFalse(CharacterSignature.of(" 1,234").startsWithDigit());
+    assertFalse(CharacterSignature.of("$5").startsWithDigit());
+  }
+
+  @Test
+  public void testOf_Signs() {
+    CharacterSignature signature = CharacterSignature.of("€ 15%");
+    assertTrue(signature.hasCurrencySigns());
+    assertTrue(signature.hasPercentSigns());
+    assertFalse(signature.hasLetters());
+    assertTrue(CharacterSignature.of("٣٪").hasPercentSigns());
+    assertTrue(CharacterSignature.of("15 EUR").hasLetters());
+  }
+
+  @Test
+  public void testCountPruned() {
+    assertEquals(2, CharacterSignature.countPruned(new boolean[] {false, true, false}));
+  }
+}
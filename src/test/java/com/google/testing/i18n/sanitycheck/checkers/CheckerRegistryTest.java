@@ -0,0 +1,106 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import com.ibm.icu.util.ULocale;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+/** Tests the {@link CheckerRegistry} class functionality. */
+@RunWith(JUnit4.class)
+public class CheckerRegistryTest extends TestCase {
+
+  private static final Checker PASSING_CHECKER = new Checker() {
+    @Override
+    public void check(Placeholder target, ULocale locale, @Nullable String message) {}
+  };
+
+  private static class CountingProvider implements CheckerProvider {
+    final AtomicInteger created = new AtomicInteger();
+
+    @Override
+    public Set<String> getNames() {
+      return ImmutableSet.of("custom");
+    }
+
+    @Override
+    public Checker create(String name) {
+      created.incrementAndGet();
+      return PASSING_CHECKER;
+    }
+  }
+
+  @Test
+  public void testGetDefault_FindsBuiltInCheckers() {
+    CheckerRegistry registry = CheckerRegistry.getDefault();
+    assertTrue(registry.getNames().containsAll(new BuiltInCheckerProvider().getNames()));
+    assertTrue(registry.get("number") instanceof NumberChecker);
+    assertSame(registry.get("number"), registry.get("number"));
+    assertNull(registry.get("unknown"));
+    assertFalse(registry.contains("unknown"));
+  }
+
+  @Test
+  public void testRegister_CreatesCheckersLazilyAndOnce() {
+    CountingProvider provider = new CountingProvider();
+    CheckerRegistry registry = new CheckerRegistry();
+    registry.register(provider);
+    assertTrue(registry.contains("custom"));
+    assertEquals(0, provider.created.get());
+    assertSame(PASSING_CHECKER, registry.get("custom"));
+    assertSame(PASSING_CHECKER, registry.get("custom"));
+    assertEquals(1, provider.created.get());
+  }
+
+  @Test
+  public void testRegister_FirstProviderWins() {
+    CheckerRegistry registry = new CheckerRegistry();
+    registry.register(new BuiltInCheckerProvider());
+    registry.register(new CheckerProvider() {
+      @Override
+      public Set<String> getNames() {
+        return ImmutableSet.of("number");
+      }
+
+      @Override
+      public Checker create(String name) {
+        return PASSING_CHECKER;
+      }
+    });
+    assertTrue(registry.get("number") instanceof NumberChecker);
+  }
+
+  @Test
+  public void testRegister_ExplicitCheckerReplaces() {
+    CheckerRegistry registry = new CheckerRegistry();
+    registry.register(new BuiltInCheckerProvider());
+    registry.register("number", PASSING_CHECKER);
+    assertSame(PASSING_CHECKER, registry.get("number"));
+    assertEquals(new BuiltInCheckerProvider().getNames().size(), registry.getAll().size());
+  }
+}
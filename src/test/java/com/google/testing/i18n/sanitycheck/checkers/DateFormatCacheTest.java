@@ -0,0 +1,150 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.i18n.sanitycheck.metrics.MetricsSink;
+import com.google.testing.i18n.sanitycheck.metrics.StripedMetrics;
+import com.google.testing.i18n.sanitycheck.parser.Placeholder;
+
+import com.ibm.icu.text.DateFormat;
+import com.ibm.icu.util.ULocale;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/** Tests the {@link DateFormatCache} class functionality. */
+@RunWith(JUnit4.class)
+public class DateFormatCacheTest extends TestCase {
+
+  private final AtomicInteger producerCalls = new AtomicInteger();
+  private final TimeDateChecker.DateFormatProducer producer =
+      new TimeDateChecker.DateFormatProducer() {
+        @Override
+        public ImmutableList<DateFormat> get(Placeholder target, ULocale locale) {
+          producerCalls.incrementAndGet();
+          DateFormat format = DateFormat.getDateInstance(DateFormat.SHORT, locale);
+          format.setLenient(target.isLenient());
+          return ImmutableList.of(format);
+        }
+      };
+
+  @Test
+  public void testGet_ReusesFormatsWithinThread() {
+    DateFormatCache cache = new DateFormatCache(4);
+    Placeholder target = Placeholder.builder("date", "1/1/14").build();
+    List<DateFormat> first = cache.get(producer, target, ULocale.US);
+    List<DateFormat> second = cache.get(producer, target, ULocale.US);
+    assertSame(first, second);
+    assertEquals(1, producerCalls.get());
+  }
+
+  @Test
+  public void testGet_SeparatesLocalesAndLenientFlag() {
+    DateFormatCache cache = new DateFormatCache(4);
+    Placeholder lenient = Placeholder.builder("date", "1/1/14").build();
+    Placeholder nonLenient = Placeholder.builder(lenient).putLenientParam(false).build();
+    cache.get(producer, lenient, ULocale.US);
+    cache.get(producer, lenient, ULocale.GERMANY);
+    List<DateFormat> strictFormats = cache.get(producer, nonLenient, ULocale.US);
+    assertEquals(3, producerCalls.get());
+    assertFalse(strictFormats.get(0).isLenient());
+  }
+
+  @Test
+  public void testGet_EvictsLeastRecentlyUsed() {
+    DateFormatCache cache = new DateFormatCache(1);
+    Placeholder target = Placeholder.builder("date", "1/1/14").build();
+    cache.get(producer, target, ULocale.US);
+    cache.get(producer, target, ULocale.GERMANY);
+    cache.get(producer, target, ULocale.US);
+    assertEquals(3, producerCalls.get());
+  }
+
+  @Test
+  public void testGet_DoesNotShareFormatsBetweenThreads() throws InterruptedException {
+    final DateFormatCache cache = new DateFormatCache(4);
+    final Placeholder target = Placeholder.builder("date", "1/1/14").build();
+    final AtomicReference<List<DateFormat>> otherThreadFormats =
+        new AtomicReference<List<DateFormat>>();
+    List<DateFormat> formats = cache.get(producer, target, ULocale.US);
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        otherThreadFormats.set(cache.get(producer, target, ULocale.US));
+      }
+    });
+    thread.start();
+    thread.join();
+    assertNotSame(formats.get(0), otherThreadFormats.get().get(0));
+    assertEquals(2, producerCalls.get());
+  }
+
+  @Test
+  public void testWarmUp_HandsFormatsOverToCallingThread()
+      throws InterruptedException, ExecutionException {
+    StripedMetrics metrics = new StripedMetrics();
+    final DateFormatCache cache = new DateFormatCache(4, metrics);
+    final TimeDateChecker checker = new TimeDateChecker(producer, cache);
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      pool.submit(new Runnable() {
+        @Override
+        public void run() {
+          checker.warmUp(ULocale.US);
+        }
+      }).get();
+    } finally {
+      pool.shutdown();
+    }
+    assertEquals(2, producerCalls.get());
+    Placeholder target = Placeholder.builder("date", "1/1/14").build();
+    List<DateFormat> formats = cache.get(producer, target, ULocale.US);
+    assertEquals(Long.valueOf(1), metrics.getCacheHits().get(MetricsSink.DATE_FORMAT_CACHE));
+    assertNull(metrics.getCacheMisses().get(MetricsSink.DATE_FORMAT_CACHE));
+    assertEquals(2, producerCalls.get());
+    assertTrue(formats.get(0).isLenient());
+    // Only one thread takes the warmed formats over.
+    assertSame(formats, cache.get(producer, target, ULocale.US));
+  }
+
+  @Test
+  public void testWarmUp_KeepsAtMostMaximumSizeEntries() {
+    StripedMetrics metrics = new StripedMetrics();
+    DateFormatCache cache = new DateFormatCache(1, metrics);
+    Placeholder target = Placeholder.builder("date", "1/1/14").build();
+    cache.warmUp(producer, target, ULocale.US);
+    cache.warmUp(producer, target, ULocale.FRANCE);
+    assertEquals(2, producerCalls.get());
+    // The entry warmed first was dropped and has to be built again.
+    cache.get(producer, target, ULocale.US);
+    assertEquals(3, producerCalls.get());
+    cache.get(producer, target, ULocale.FRANCE);
+    assertEquals(3, producerCalls.get());
+    assertEquals(Long.valueOf(1), metrics.getCacheHits().get(MetricsSink.DATE_FORMAT_CACHE));
+    assertEquals(Long.valueOf(1), metrics.getCacheMisses().get(MetricsSink.DATE_FORMAT_CACHE));
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+import com.ibm.icu.text.DateFormat;
+import com.ibm.icu.text.SimpleDateFormat;
+import com.ibm.icu.util.ULocale;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+import java.util.Set;
+
+/** Tests the {@link DateFormatStyles} class functionality. */
+@RunWith(JUnit4.class)
+public class DateFormatStylesTest extends TestCase {
+
+  private static final ImmutableList<Integer> STYLES = ImmutableList.of(DateFormat.NONE,
+      DateFormat.SHORT, DateFormat.FULL, DateFormat.RELATIVE_SHORT, DateFormat.RELATIVE_FULL);
+
+  private final DateFormatStyles styles = DateFormatStyles.combine(STYLES, STYLES);
+
+  @Test
+  public void testNewCandidates_DistinctPatterns() {
+    List<DateFormat> candidates = styles.newCandidates(ULocale.US, true);
+    Set<String> patterns = Sets.newHashSet();
+    for (DateFormat candidate : candidates) {
+      assertTrue(candidate instanceof SimpleDateFormat);
+      assertTrue(patterns.add(((SimpleDateFormat) candidate).toPattern()));
+      assertTrue(candidate.isLenient());
+    }
+    assertEquals(24 - styles.getRemovedCount(ULocale.US), candidates.size());
+  }
+
+  @Test
+  public void testNewCandidates_KeepsFirstStyleOfPattern() {
+    List<DateFormat> candidates = styles.newCandidates(ULocale.GERMAN, false);
+    assertEquals(getPattern(DateFormat.NONE, DateFormat.SHORT, ULocale.GERMAN),
+        ((SimpleDateFormat) candidates.get(0)).toPattern());
+    assertEquals(getPattern(DateFormat.NONE, DateFormat.FULL, ULocale.GERMAN),
+        ((SimpleDateFormat) candidates.get(1)).toPattern());
+    assertFalse(candidates.get(0).isLenient());
+  }
+
+  @Test
+  public void testGetRemovedCount_RemovesRelativeStyles() {
+    // Only the 8 pairs of NONE, SHORT and FULL are absolute, the other 16 are relative.
+    assertEquals(16, styles.getRemovedCount(ULocale.JAPAN));
+    assertEquals(8, styles.newCandidates(ULocale.JAPAN, true).size());
+  }
+
+  @Test
+  public void testGetRemovedCount_RemovesEqualPatterns() {
+    DateFormatStyles dateStyles = DateFormatStyles.combine(
+        ImmutableList.of(DateFormat.SHORT, DateFormat.SHORT), ImmutableList.of(DateFormat.NONE));
+    assertEquals(1, dateStyles.getRemovedCount(ULocale.US));
+    assertEquals(1, dateStyles.newCandidates(ULocale.US, true).size());
+  }
+
+  private static String getPattern(int dateStyle, int timeStyle, ULocale locale) {
+    return ((SimpleDateFormat) DateFormat.getDateTimeInstance(dateStyle, timeStyle, locale))
+        .toPattern();
+  }
+}
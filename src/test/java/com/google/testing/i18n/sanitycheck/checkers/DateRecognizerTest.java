@@ -0,0 +1,109 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.testing.i18n.sanitycheck.SanityCheckProcessor;
+
+import com.ibm.icu.text.DateFormat;
+import com.ibm.icu.util.ULocale;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Date;
+import java.util.List;
+
+/** Tests the {@link DateRecognizer} class functionality. */
+@RunWith(JUnit4.class)
+public class DateRecognizerTest extends TestCase {
+
+  private static final Date DATE = new Date(1400000000000L);
+
+  private final List<DateFormat> candidates = ImmutableList.of(
+      DateFormat.getDateInstance(DateFormat.FULL, ULocale.US),
+      DateFormat.getDateInstance(DateFormat.SHORT, ULocale.US),
+      DateFormat.getTimeInstance(DateFormat.SHORT, ULocale.US));
+  private final DateRecognizer recognizer = DateRecognizer.compile(candidates, ULocale.US);
+
+  @Test
+  public void testRecognize_FormattedDateKeepsItsCandidate() {
+    for (int i = 0; i < candidates.size(); i++) {
+      boolean[] recognized = recognizer.recognize(candidates.get(i).format(DATE));
+      assertNotNull(recognized);
+      assertTrue(recognized[i]);
+    }
+  }
+
+  @Test
+  public void testRecognize_RemovesOtherCandidates() {
+    boolean[] recognized = recognizer.recognize("1:45 PM");
+    assertNotNull(recognized);
+    assertFalse(recognized[0]);
+    assertFalse(recognized[1]);
+    assertTrue(recognized[2]);
+  }
+
+  @Test
+  public void testRecognize_IgnoresCase() {
+    boolean[] recognized = recognizer.recognize("TUESDAY, MAY 13, 2014");
+    assertNotNull(recognized);
+    assertTrue(recognized[0]);
+  }
+
+  @Test
+  public void testRecognize_NotADate() {
+    boolean[] recognized = recognizer.recognize("hello");
+    assertNotNull(recognized);
+    for (boolean candidate : recognized) {
+      assertFalse(candidate);
+    }
+  }
+
+  @Test
+  public void testRecognize_LongTextKeepsAllCandidates() {
+    assertNull(recognizer.recognize(Strings.repeat("1", DateRecognizer.MAXIMUM_LENGTH + 1)));
+  }
+
+  @Test
+  public void testRecognize_AlgorithmicNumberingKeepsAllCandidates() {
+    ULocale hebrew = new ULocale("he@numbers=hebr");
+    DateRecognizer hebrewRecognizer = DateRecognizer.compile(
+        ImmutableList.of(DateFormat.getDateInstance(DateFormat.SHORT, hebrew)), hebrew);
+    assertNull(hebrewRecognizer.recognize("hello"));
+  }
+
+  @Test
+  public void testRecognize_NonDecimalDigitsKeepAllCandidates() {
+    ULocale hanidec = new ULocale("zh@numbers=hanidec");
+    DateFormat format =
+        DateFormat.getDateTimeInstance(DateFormat.LONG, DateFormat.SHORT, hanidec);
+    DateRecognizer hanidecRecognizer = DateRecognizer.compile(ImmutableList.of(format), hanidec);
+    assertNull(hanidecRecognizer.recognize(format.format(DATE)));
+    for (int dateStyle : new int[] {DateFormat.FULL, DateFormat.LONG, DateFormat.MEDIUM,
+        DateFormat.SHORT}) {
+      String actual = DateFormat.getDateTimeInstance(dateStyle, DateFormat.SHORT, hanidec)
+          .format(DATE);
+      assertTrue(actual,
+          SanityCheckProcessor.check("{datetime}", actual, hanidec).isPassed());
+    }
+    assertTrue(SanityCheckProcessor.check("{date}", "二〇一四年五月一三日", hanidec).isPassed());
+  }
+}
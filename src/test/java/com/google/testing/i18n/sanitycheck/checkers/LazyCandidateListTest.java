@@ -0,0 +1,63 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests the {@link LazyCandidateList} class functionality. */
+@RunWith(JUnit4.class)
+public class LazyCandidateListTest extends TestCase {
+
+  private int created;
+  private final LazyCandidateList<String> candidates = new LazyCandidateList<String>(3) {
+    @Override
+    protected String create(int index) {
+      created++;
+      return "candidate" + index;
+    }
+  };
+
+  @Test
+  public void testGet_BuildsOnlyRequestedCandidatesOnce() {
+    assertEquals(3, candidates.size());
+    assertEquals(0, created);
+    assertEquals("candidate1", candidates.get(1));
+    assertSame(candidates.get(1), candidates.get(1));
+    assertEquals(1, created);
+  }
+
+  @Test
+  public void testBuildAll_BuildsEveryCandidate() {
+    LazyCandidateList.buildAll(candidates);
+    assertEquals(3, created);
+    candidates.get(0);
+    assertEquals(3, created);
+  }
+
+  @Test
+  public void testGet_OutOfRange() {
+    try {
+      candidates.get(3);
+      fail("Index 3 is out of range");
+    } catch (IndexOutOfBoundsException e) {
+      // Expected.
+    }
+  }
+}
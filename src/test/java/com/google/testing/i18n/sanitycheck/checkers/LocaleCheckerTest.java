@@ -36,7 +36,7 @@ public class LocaleCheckerTest extends TestCase {
   public void testCheck_Valid() {
     ULocale mockLocale = TestUtils.getRandomLocale();
     final Placeholder testToken = Placeholder.builder(mockLocale.toString(), "locale").build();
-    checker.check(mockLocale, testToken, null);
+    assertNull(checker.evaluate(mockLocale, testToken, null));
   }
 
   @Test
@@ -44,32 +44,20 @@ public class LocaleCheckerTest extends TestCase {
     ULocale mockLocale = TestUtils.getRandomLocale();
     final Placeholder testToken = Placeholder.builder(mockLocale.toString(), "locale")
         .putLocaleParam(mockLocale.toString()).build();
-    checker.check(mockLocale, testToken, null);
+    assertNull(checker.evaluate(mockLocale, testToken, null));
   }
 
   @Test
   public void testCheck_Invalid() {
-    boolean failed = false;
-    try {
-      final Placeholder testToken = Placeholder.builder("zz_ZZ", "locale").build();
-      checker.check(new ULocale("zz_ZZ"), testToken, null);
-    } catch (AssertionError e) {
-      failed = true;
-    }
-    assertTrue("Case must fail", failed);
+    final Placeholder testToken = Placeholder.builder("zz_ZZ", "locale").build();
+    assertNotNull("Case must fail", checker.evaluate(new ULocale("zz_ZZ"), testToken, null));
   }
 
   @Test
   public void testCheck_InvalidWithValue() {
-    boolean failed = false;
-    try {
-      ULocale mockLocale = TestUtils.getRandomLocale();
-      final Placeholder testToken = Placeholder.builder(mockLocale.toString(), "locale")
-          .putExpectedValueParam("zz_ZZ").build();
-      checker.check(mockLocale, testToken, null);
-    } catch (AssertionError e) {
-      failed = true;
-    }
-    assertTrue("Case must fail", failed);
+    ULocale mockLocale = TestUtils.getRandomLocale();
+    final Placeholder testToken = Placeholder.builder(mockLocale.toString(), "locale")
+        .putExpectedValueParam("zz_ZZ").build();
+    assertNotNull("Case must fail", checker.evaluate(mockLocale, testToken, null));
   }
 }
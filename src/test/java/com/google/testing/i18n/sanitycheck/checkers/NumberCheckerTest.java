@@ -15,12 +15,15 @@
  */
 package com.google.testing.i18n.sanitycheck.checkers;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.Lists;
+import com.google.testing.i18n.sanitycheck.TestUtils;
 import com.google.testing.i18n.sanitycheck.parser.Placeholder;
 
 import com.ibm.icu.text.NumberFormat;
@@ -33,7 +36,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
-import java.text.ParseException;
+import java.text.ParsePosition;
 
 /** Tests the {@link NumberChecker} class functionality. */
 @RunWith(JUnit4.class)
@@ -49,57 +52,46 @@ public class NumberCheckerTest extends TestCase {
   }
 
   @Test
-  public void testCheck_ValidLenient() throws ParseException {
+  public void testCheck_ValidLenient() {
     final Placeholder testToken = Placeholder.builder("number", "42").build();
-    when(mockFormat.parse("42")).thenReturn(42L);
-    checker.check(Lists.newArrayList(mockFormat), testToken, ULocale.CANADA, null);
+    when(mockFormat.parse(eq("42"), any(ParsePosition.class))).thenAnswer(TestUtils.consumingAll(42L));
+    assertNull(checker.evaluate(Lists.newArrayList(mockFormat), testToken, ULocale.CANADA, null));
     verify(mockFormat).setParseStrict(false);
   }
 
   @Test
-  public void testCheck_ValidNonLenient() throws ParseException {
+  public void testCheck_ValidNonLenient() {
     final Placeholder testToken =
         Placeholder.builder("number", "42").putLenientParam(false).build();
-    when(mockFormat.parse("42")).thenReturn(42L);
-    checker.check(Lists.newArrayList(mockFormat), testToken, ULocale.CANADA, null);
+    when(mockFormat.parse(eq("42"), any(ParsePosition.class))).thenAnswer(TestUtils.consumingAll(42L));
+    assertNull(checker.evaluate(Lists.newArrayList(mockFormat), testToken, ULocale.CANADA, null));
     verify(mockFormat).setParseStrict(true);
   }
 
   @Test
-  public void testCheck_VaidWithValue() throws ParseException {
+  public void testCheck_VaidWithValue() {
     final Placeholder testToken =
         Placeholder.builder("number", "42").putExpectedValueParam("42").build();
-    when(mockFormat.parse("42")).thenReturn(42L);
-    checker.check(Lists.newArrayList(mockFormat), testToken, ULocale.CANADA, null);
+    when(mockFormat.parse(eq("42"), any(ParsePosition.class))).thenAnswer(TestUtils.consumingAll(42L));
+    assertNull(checker.evaluate(Lists.newArrayList(mockFormat), testToken, ULocale.CANADA, null));
     verify(mockFormat).setParseStrict(false);
   }
 
   @Test
-  public void testCheck_InvalidSimple() throws ParseException {
-    boolean failed = false;
-    try {
-      final Placeholder testToken = Placeholder.builder("number", "asd").build();
-      when(mockFormat.parse("asd")).thenThrow(new ParseException("Test exception", 1));
-      checker.check(Lists.newArrayList(mockFormat), testToken, ULocale.CANADA, null);
-    } catch (AssertionError e) {
-      failed = true;
-    }
-    assertTrue("This case must fail", failed);
+  public void testCheck_InvalidSimple() {
+    final Placeholder testToken = Placeholder.builder("number", "asd").build();
+    assertNotNull("This case must fail",
+        checker.evaluate(Lists.newArrayList(mockFormat), testToken, ULocale.CANADA, null));
     verify(mockFormat).setParseStrict(false);
   }
 
   @Test
-  public void testCheck_InvalidValue() throws ParseException {
-    boolean failed = false;
-    try {
-      final Placeholder testToken =
-          Placeholder.builder("number", "asd").putExpectedValueParam("43").build();
-      when(mockFormat.parse("42")).thenReturn(42L);
-      checker.check(Lists.newArrayList(mockFormat), testToken, ULocale.CANADA, null);
-    } catch (AssertionError e) {
-      failed = true;
-    }
-    assertTrue("This case must fail", failed);
+  public void testCheck_InvalidValue() {
+    final Placeholder testToken =
+        Placeholder.builder("number", "asd").putExpectedValueParam("43").build();
+    when(mockFormat.parse(eq("42"), any(ParsePosition.class))).thenAnswer(TestUtils.consumingAll(42L));
+    assertNotNull("This case must fail",
+        checker.evaluate(Lists.newArrayList(mockFormat), testToken, ULocale.CANADA, null));
     verify(mockFormat).setParseStrict(false);
   }
 }
@@ -0,0 +1,98 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.testing.i18n.sanitycheck.metrics.MetricsSink;
+import com.google.testing.i18n.sanitycheck.metrics.StripedMetrics;
+
+import com.ibm.icu.text.NumberFormat;
+import com.ibm.icu.text.RuleBasedNumberFormat;
+import com.ibm.icu.util.ULocale;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+
+/** Tests the {@link NumberFormatPool} class functionality. */
+@RunWith(JUnit4.class)
+public class NumberFormatPoolTest extends TestCase {
+
+  private final StripedMetrics metrics = new StripedMetrics();
+  private final NumberFormatPool pool = new NumberFormatPool(1, metrics);
+
+  @Test
+  public void testBorrow_ReusesReleasedFormatters() {
+    List<NumberFormat> first = pool.borrow(ULocale.US, true);
+    pool.release(ULocale.US, true, first);
+    List<NumberFormat> second = pool.borrow(ULocale.US, true);
+    assertSame(first, second);
+    assertEquals(1, getMissCount());
+    assertEquals(1, getHitCount());
+  }
+
+  @Test
+  public void testBorrow_BuildsNewFormattersWhileInUse() {
+    List<NumberFormat> first = pool.borrow(ULocale.US, true);
+    List<NumberFormat> second = pool.borrow(ULocale.US, true);
+    assertNotSame(first, second);
+    assertEquals(2, getMissCount());
+    assertEquals(0, getHitCount());
+  }
+
+  @Test
+  public void testBorrow_SeparatesLocalesAndLenientFlag() {
+    pool.release(ULocale.US, true, pool.borrow(ULocale.US, true));
+    pool.borrow(ULocale.US, false);
+    pool.borrow(ULocale.FRANCE, true);
+    assertEquals(3, getMissCount());
+    assertEquals(0, getHitCount());
+  }
+
+  @Test
+  public void testBorrow_ConfiguresLenientMode() {
+    for (NumberFormat formatter : pool.borrow(ULocale.US, false)) {
+      assertTrue(formatter.isParseStrict());
+      if (formatter instanceof RuleBasedNumberFormat) {
+        assertFalse(((RuleBasedNumberFormat) formatter).lenientParseEnabled());
+      }
+    }
+  }
+
+  @Test
+  public void testRelease_KeepsAtMostMaximumIdle() {
+    List<NumberFormat> first = pool.borrow(ULocale.US, true);
+    List<NumberFormat> second = pool.borrow(ULocale.US, true);
+    pool.release(ULocale.US, true, first);
+    pool.release(ULocale.US, true, second);
+    assertSame(first, pool.borrow(ULocale.US, true));
+    pool.borrow(ULocale.US, true);
+    assertEquals(3, getMissCount());
+  }
+
+  private long getHitCount() {
+    Long result = metrics.getCacheHits().get(MetricsSink.NUMBER_FORMAT_POOL);
+    return result != null ? result : 0;
+  }
+
+  private long getMissCount() {
+    Long result = metrics.getCacheMisses().get(MetricsSink.NUMBER_FORMAT_POOL);
+    return result != null ? result : 0;
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.checkers;
+
+import com.google.testing.i18n.sanitycheck.SanityCheckProcessor;
+
+import com.ibm.icu.text.NumberFormat;
+import com.ibm.icu.util.ULocale;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+
+/** Tests the {@link NumberSignatureTable} class functionality. */
+@RunWith(JUnit4.class)
+public class NumberSignatureTableTest extends TestCase {
+
+  private final NumberSignatureTable table = new NumberSignatureTable(ULocale.US, new int[] {
+      NumberSignatureTable.NUMBER | NumberSignatureTable.CURRENCY,
+      NumberSignatureTable.NUMBER,
+      NumberSignatureTable.NUMBER | NumberSignatureTable.PERCENT,
+      NumberSignatureTable.SPELLED_OUT});
+
+  private void assertMatch(String text, boolean lenient, boolean... expected) {
+    boolean[] actual = table.match(text, lenient);
+    assertTrue(text + ": " + Arrays.toString(actual), Arrays.equals(expected, actual));
+  }
+
+  @Test
+  public void testMatch_PlainNumber() {
+    assertMatch("1,234", true, false, true, false, false);
+  }
+
+  @Test
+  public void testMatch_PlainNumberStrictKeepsSpelledOut() {
+    assertMatch("1,234", false, false, true, false, true);
+  }
+
+  @Test
+  public void testMatch_SignedNumberKeepsSpelledOut() {
+    assertMatch("-5", true, false, true, false, true);
+  }
+
+  @Test
+  public void testMatch_SpelledOut() {
+    assertMatch("twelve", true, false, false, false, true);
+  }
+
+  @Test
+  public void testMatch_Signs() {
+    assertMatch("$5", true, true, true, false, true);
+    assertMatch("5%", true, false, true, true, false);
+  }
+
+  @Test
+  public void testMatch_NotANumber() {
+    assertMatch("NaN", true, true, true, true, true);
+  }
+
+  @Test
+  public void testMatch_NonDecimalDigitsKeepAllCandidates() {
+    ULocale hanidec = new ULocale("zh@numbers=hanidec");
+    NumberSignatureTable hanidecTable = new NumberSignatureTable(hanidec,
+        new int[] {NumberSignatureTable.NUMBER | NumberSignatureTable.CURRENCY,
+            NumberSignatureTable.SPELLED_OUT});
+    assertTrue(Arrays.equals(new boolean[] {true, true}, hanidecTable.match("一二", true)));
+    String currency = NumberFormat.getCurrencyInstance(hanidec).format(1234.5);
+    assertTrue(currency,
+        SanityCheckProcessor.check("{number}", currency, hanidec).isPassed());
+    assertTrue(SanityCheckProcessor.check("{number:{value:'1234.5'}}", "一,二三四.五", hanidec)
+        .isPassed());
+  }
+
+  @Test
+  public void testGetSignatureTable_OfPool() {
+    NumberFormatPool pool = new NumberFormatPool(1);
+    boolean[] parsable = pool.getSignatureTable(ULocale.US).match("1,234", true);
+    assertEquals(pool.borrow(ULocale.US, true).size(), parsable.length);
+    assertSame(pool.getSignatureTable(ULocale.US), pool.getSignatureTable(ULocale.US));
+  }
+}
@@ -52,8 +52,8 @@ public class OrderingCheckerTest extends TestCase {
     when(mockCollator.compare("b", "c")).thenReturn(-1);
     when(mockCollator.compare("c", "d")).thenReturn(-1);
 
-    checker.makeCheck(ImmutableList.of(mockCollator), ImmutableList.of("a", "b", "c", "d"),
-        ULocale.CANADA, null);
+    assertNull(checker.makeCheck(ImmutableList.of(mockCollator),
+        ImmutableList.of("a", "b", "c", "d"), ULocale.CANADA, null));
 
     verify(mockCollator).compare("a", "b");
     verify(mockCollator).compare("b", "c");
@@ -66,8 +66,8 @@ public class OrderingCheckerTest extends TestCase {
     when(mockCollator.compare("a", "a")).thenReturn(0);
     when(mockCollator.compare("a", "b")).thenReturn(-1);
 
-    checker.makeCheck(ImmutableList.of(mockCollator), ImmutableList.of("a", "a", "a", "b"),
-        ULocale.CANADA, null);
+    assertNull(checker.makeCheck(ImmutableList.of(mockCollator),
+        ImmutableList.of("a", "a", "a", "b"), ULocale.CANADA, null));
 
     verify(mockCollator, times(2)).compare("a", "a");
     verify(mockCollator).compare("a", "b");
@@ -79,14 +79,8 @@ public class OrderingCheckerTest extends TestCase {
     when(mockCollator.compare("b", "d")).thenReturn(-1);
     when(mockCollator.compare("d", "c")).thenReturn(1);
 
-    boolean failed = false;
-    try {
-      checker.makeCheck(ImmutableList.of(mockCollator), ImmutableList.of("a", "b", "d", "c", "e"),
-          ULocale.CANADA, null);
-    } catch (AssertionError e) {
-      failed = true;
-    }
-    assertTrue("Case should fail.", failed);
+    assertNotNull("Case should fail.", checker.makeCheck(ImmutableList.of(mockCollator),
+        ImmutableList.of("a", "b", "d", "c", "e"), ULocale.CANADA, null));
     verify(mockCollator).compare("a", "b");
     verify(mockCollator).compare("b", "d");
     verify(mockCollator).compare("d", "c");
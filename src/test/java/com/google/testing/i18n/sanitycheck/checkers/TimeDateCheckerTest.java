@@ -38,7 +38,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import java.text.FieldPosition;
-import java.text.ParseException;
+import java.text.ParsePosition;
 import java.util.Date;
 
 /** Tests the {@link TimeStringFormatProducer} class functionality. */
@@ -63,46 +63,48 @@ public class TimeDateCheckerTest extends TestCase {
   }
 
   @Test
-  public void testCheck_Simple() throws ParseException {
+  public void testCheck_Simple() {
     final Placeholder testToken = Placeholder.builder("time", "22:22").build();
-    when(mockFormat.parse("22:22")).thenReturn(mockDate);
+    when(mockFormat.parse(eq("22:22"), any(ParsePosition.class)))
+        .thenAnswer(TestUtils.consumingAll(mockDate));
     checker.check(testToken, ULocale.CANADA, null);
-    verify(mockFormat).parse("22:22");
+    verify(mockFormat).parse(eq("22:22"), any(ParsePosition.class));
   }
 
   @Test
-  public void testCheck_Strict() throws ParseException {
+  public void testCheck_Strict() {
     final Placeholder testToken =
         Placeholder.builder("time", "22:22").putStrictParam(true).build();
-    when(mockFormat.parse("22:22")).thenReturn(mockDate);
+    when(mockFormat.parse(eq("22:22"), any(ParsePosition.class)))
+        .thenAnswer(TestUtils.consumingAll(mockDate));
     when(mockFormat.format(any(Date.class), any(StringBuffer.class), any(FieldPosition.class)))
         .thenReturn(new StringBuffer("22:22"));
     checker.check(testToken, ULocale.CANADA, null);
-    verify(mockFormat).parse("22:22");
+    verify(mockFormat).parse(eq("22:22"), any(ParsePosition.class));
     verify(mockFormat).format(eq(mockDate), any(StringBuffer.class), any(FieldPosition.class));
   }
 
   @Test
-  public void testCheck_SimpleInvalid() throws ParseException {
+  public void testCheck_SimpleInvalid() {
     boolean failed = false;
     try {
       final Placeholder testToken = Placeholder.builder("time", "test").build();
-      when(mockFormat.parse("test")).thenThrow(new ParseException("Test exception", 1));
       checker.check(testToken, ULocale.CANADA, null);
     } catch (AssertionError e) {
       failed = true;
     }
     assertTrue("Case must fail", failed);
-    verify(mockFormat).parse("test");
+    verify(mockFormat).parse(eq("test"), any(ParsePosition.class));
   }
 
   @Test
-  public void testCheck_StrictInvalid() throws ParseException {
+  public void testCheck_StrictInvalid() {
     boolean failed = false;
     try {
       final Placeholder testToken =
           Placeholder.builder("time", "22:22").putStrictParam(true).build();
-      when(mockFormat.parse("22:22")).thenReturn(mockDate);
+      when(mockFormat.parse(eq("22:22"), any(ParsePosition.class)))
+        .thenAnswer(TestUtils.consumingAll(mockDate));
       when(mockFormat.format(any(Date.class), any(StringBuffer.class), any(FieldPosition.class)))
           .thenReturn(new StringBuffer("22:23"));
       checker.check(testToken, ULocale.CANADA, null);
@@ -110,7 +112,7 @@ public class TimeDateCheckerTest extends TestCase {
       failed = true;
     }
     assertTrue("Case must fail", failed);
-    verify(mockFormat).parse("22:22");
+    verify(mockFormat).parse(eq("22:22"), any(ParsePosition.class));
     verify(mockFormat).format(eq(mockDate), any(StringBuffer.class), any(FieldPosition.class));
   }
 
@@ -133,7 +135,7 @@ public class TimeDateCheckerTest extends TestCase {
   }
 
   @Test
-  public void testCheck_ValueBestMatch() throws ParseException {
+  public void testCheck_ValueBestMatch() {
     // Use special checker with multiple data formats to verity best match strategy
     final TimeDateChecker multiChecker =
         new TimeDateChecker(new TimeDateChecker.DateFormatProducer() {
@@ -145,8 +147,8 @@ public class TimeDateCheckerTest extends TestCase {
     final SimpleDateFormat simpleDateFormat = new SimpleDateFormat("d MMMM yyyy, HH:mm:ss");
     final Date date = TestUtils.generateRandomDate();
     final String formattedDate = simpleDateFormat.format(date);
-    when(mockFormat.parse(formattedDate))
-        .thenReturn(mockDate, null, date);
+    when(mockFormat.parse(eq(formattedDate), any(ParsePosition.class)))
+        .thenAnswer(TestUtils.consumingAll(mockDate, null, date));
     final Placeholder testToken = Placeholder
         .builder("datetime", formattedDate)
         .putExpectedValueParam(String.format("%d", date.getTime())).build();
@@ -0,0 +1,84 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.metrics;
+
+import com.ibm.icu.util.ULocale;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+/** Tests the {@link PrometheusTextExporter} and {@link JmxExporter} classes functionality. */
+@RunWith(JUnit4.class)
+public class ExportersTest extends TestCase {
+
+  private static StripedMetrics newMetrics() {
+    StripedMetrics metrics = new StripedMetrics();
+    metrics.recordCheckLatency("date", ULocale.US, 1500);
+    metrics.recordParseLatency(800);
+    metrics.recordCandidatesTried("date", 3);
+    metrics.recordCandidatesPruned("date", 2, 5);
+    metrics.recordCacheLookup(MetricsSink.TEMPLATE_CACHE, true);
+    metrics.recordCacheLookup(MetricsSink.TEMPLATE_CACHE, false);
+    metrics.recordCacheLookup(MetricsSink.TEMPLATE_CACHE, true);
+    return metrics;
+  }
+
+  @Test
+  public void testPrometheusText() {
+    String text = PrometheusTextExporter.export(newMetrics());
+    assertTrue(text, text.contains(
+        "# TYPE i18n_sanitycheck_check_latency_seconds histogram\n"));
+    assertTrue(text, text.contains("i18n_sanitycheck_check_latency_seconds_bucket"
+        + "{checker=\"date\",locale=\"en_US\",le=\"1.0E-6\"} 0\n"));
+    assertTrue(text, text.contains("i18n_sanitycheck_check_latency_seconds_bucket"
+        + "{checker=\"date\",locale=\"en_US\",le=\"4.0E-6\"} 1\n"));
+    assertTrue(text, text.contains(
+        "i18n_sanitycheck_check_latency_seconds_count{checker=\"date\",locale=\"en_US\"} 1\n"));
+    assertTrue(text, text.contains("i18n_sanitycheck_parse_latency_seconds_bucket"
+        + "{le=\"+Inf\"} 1\n"));
+    assertTrue(text, text.contains("i18n_sanitycheck_parse_latency_seconds_sum 8.0E-7\n"));
+    assertTrue(text, text.contains(
+        "i18n_sanitycheck_candidates_tried_bucket{checker=\"date\",le=\"4\"} 1\n"));
+    assertTrue(text, text.contains(
+        "i18n_sanitycheck_candidates_pruned_total{checker=\"date\"} 2\n"));
+    assertTrue(text, text.contains(
+        "i18n_sanitycheck_candidates_considered_total{checker=\"date\"} 5\n"));
+    assertTrue(text, text.contains("i18n_sanitycheck_cache_hits_total{cache=\"template\"} 2\n"));
+    assertTrue(text, text.contains(
+        "i18n_sanitycheck_cache_misses_total{cache=\"template\"} 1\n"));
+  }
+
+  @Test
+  public void testJmx() throws Exception {
+    MBeanServer server = MBeanServerFactory.newMBeanServer();
+    ObjectName name = JmxExporter.register(newMetrics(), server,
+        new ObjectName(JmxExporter.DEFAULT_OBJECT_NAME));
+    assertEquals(1L, server.getAttribute(name, "CheckLatency.date.en_US.Count"));
+    assertEquals(1500L, server.getAttribute(name, "CheckLatency.date.en_US.SumNanos"));
+    assertEquals(3L, server.getAttribute(name, "CandidatesTried.date.Sum"));
+    assertEquals(2L, server.getAttribute(name, "CandidatesPruned.date"));
+    assertEquals(5L, server.getAttribute(name, "CandidatesConsidered.date"));
+    assertEquals(2L, server.getAttribute(name, "CacheHits.template"));
+    assertEquals(10, server.getMBeanInfo(name).getAttributes().length);
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.metrics;
+
+import com.google.testing.i18n.sanitycheck.SanityCheckEngine;
+
+import com.ibm.icu.util.ULocale;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+
+/** Tests the {@link StripedMetrics} class functionality. */
+@RunWith(JUnit4.class)
+public class StripedMetricsTest extends TestCase {
+
+  @Test
+  public void testHistogram_Buckets() {
+    Histogram histogram = Histogram.exponential(1, 2, 3);
+    for (long value : new long[] {0, 1, 2, 3, 4, 5, 100}) {
+      histogram.record(value);
+    }
+    assertTrue(Arrays.equals(new long[] {1, 2, 4}, histogram.getUpperBounds()));
+    assertTrue(Arrays.equals(new long[] {2, 1, 2, 2}, histogram.getBucketCounts()));
+    assertEquals(7, histogram.getCount());
+    assertEquals(115, histogram.getSum());
+  }
+
+  @Test
+  public void testRecord_ByEngine() {
+    StripedMetrics metrics = new StripedMetrics();
+    SanityCheckEngine engine = SanityCheckEngine.builder().metrics(metrics).build();
+    assertTrue(engine.check("Total: {number}", "Total: 1,234.5").isPassed());
+    assertTrue(engine.check("Total: {number}", "Total: 17").isPassed());
+    assertTrue(engine.check("Total: {number}", "Total: 17", ULocale.FRANCE).isPassed());
+
+    assertEquals(2, metrics.getCheckLatencies().get("number").get(ULocale.US).getCount());
+    assertEquals(1, metrics.getCheckLatencies().get("number").get(ULocale.FRANCE).getCount());
+    assertEquals(3, metrics.getParseLatency().getCount());
+    assertEquals(3, metrics.getCandidatesTried().get("number").getCount());
+    // Plain numbers rule out the currency, percent and spelled out candidates.
+    assertEquals(Long.valueOf(18), metrics.getCandidatesPruned().get("number"));
+    assertEquals(Long.valueOf(30), metrics.getCandidatesConsidered().get("number"));
+    assertEquals(Long.valueOf(2), metrics.getCacheHits().get(MetricsSink.TEMPLATE_CACHE));
+    assertEquals(Long.valueOf(1), metrics.getCacheMisses().get(MetricsSink.TEMPLATE_CACHE));
+    assertEquals(Long.valueOf(1), metrics.getCacheHits().get(MetricsSink.NUMBER_FORMAT_POOL));
+    assertEquals(Long.valueOf(2), metrics.getCacheMisses().get(MetricsSink.NUMBER_FORMAT_POOL));
+  }
+}
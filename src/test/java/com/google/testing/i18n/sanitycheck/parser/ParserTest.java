@@ -15,13 +15,17 @@
  */
 package com.google.testing.i18n.sanitycheck.parser;
 
+import com.google.testing.i18n.sanitycheck.checkers.CheckFailure;
+
 import junit.framework.TestCase;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Tests the {@link Parser} class functionality.
@@ -127,4 +131,157 @@ public class ParserTest extends TestCase {
         parser.parse("* ? + [ ( ) { } ^ $ | \\ .", "* ? + [ ( ) { } ^ $ | \\ .");
     assertEquals("Size of parsed array should be 0.", 0, tokens.size());
   }
+
+  @Test
+  public void testParser_TemplateCacheReused() throws ParserException {
+    Parser cachingParser = new Parser(2);
+    cachingParser.parse("a 1 b", "a {ignore} b");
+    List<Placeholder> tokens = cachingParser.parse("a 2 b", "a {ignore} b");
+    assertEquals("2", tokens.get(0).getActualContent());
+    assertEquals(1, cachingParser.getTemplateCacheStats().missCount());
+    assertEquals(1, cachingParser.getTemplateCacheStats().hitCount());
+    assertEquals(1, cachingParser.getTemplateCacheSize());
+  }
+
+  @Test
+  public void testParser_TemplateCacheBounded() throws ParserException {
+    Parser cachingParser = new Parser(1);
+    cachingParser.parse("a 1", "a {ignore}");
+    cachingParser.parse("b 1", "b {ignore}");
+    cachingParser.parse("a 1", "a {ignore}");
+    assertEquals(3, cachingParser.getTemplateCacheStats().missCount());
+    assertEquals(1, cachingParser.getTemplateCacheSize());
+  }
+
+  @Test
+  public void testParser_CompiledTemplate() throws ParserException {
+    CompiledTemplate template = parser.compile("{ignore:{param:'anyparam'}} and {unknown}");
+    assertEquals(1, template.getPlaceholders().size());
+    assertEquals("ignore", template.getPlaceholders().get(0).getName());
+    List<Placeholder> tokens = parser.parse("test and {unknown}", template);
+    assertEquals("Size of parsed array should be 1.", 1, tokens.size());
+    assertEquals("test", tokens.get(0).getActualContent());
+    assertTrue(tokens.get(0).isLenient());
+  }
+
+  @Test
+  public void testTryParse_ReportsMismatchWithoutThrowing() {
+    CompiledTemplate template = parser.compile("Today is {ignore}, {unknown}");
+    List<Placeholder> placeholders = new ArrayList<Placeholder>();
+    assertNull(parser.tryParse("Today is Monday, {unknown}", template, null, placeholders));
+    assertEquals(1, placeholders.size());
+    assertEquals("Monday", placeholders.get(0).getActualContent());
+
+    CheckFailure failure = parser.tryParse("Tomorrow is Monday, {unknown}", template, null,
+        new ArrayList<Placeholder>());
+    assertNotNull(failure);
+    assertNull(failure.getCause());
+    assertTrue(failure.getMessage().contains("Tomorrow is Monday"));
+    assertTrue(parser.tryParse("Today is Monday, x", template, null, new ArrayList<Placeholder>())
+        .getMessage().contains("\"{unknown}\" is not valid"));
+    assertEquals("Custom", parser.tryParse("Tomorrow", template, "Custom",
+        new ArrayList<Placeholder>()).getMessage());
+  }
+
+  @Test
+  public void testParser_TextAroundExpectedStringFails() throws ParserException {
+    for (Parser.ExtractionEngine engine : Parser.ExtractionEngine.values()) {
+      Parser engineParser = new Parser(0, engine);
+      for (String actual : new String[] {"Today is 12.\nTomorrow is 13.", "Tomorrow is 13.\n",
+          "Tomorrow is 13.\nToday"}) {
+        try {
+          engineParser.parse(actual, "Tomorrow is {number}.");
+          fail("Text outside the expected string should not be ignored: " + actual);
+        } catch (ParserException expectedException) {
+          // Expected.
+        }
+      }
+      // The text up to the last static text goes to the placeholder and fails its check.
+      List<Placeholder> tokens =
+          engineParser.parse("Tomorrow is 13.\nToday is 12.", "Tomorrow is {number}.");
+      assertEquals("13.\nToday is 12", tokens.get(0).getActualContent());
+      tokens =
+          engineParser.parse("Today is 12.\nTomorrow is 13.", "{ignore}Tomorrow is {number}.");
+      assertEquals(2, tokens.size());
+      assertEquals("13", tokens.get(1).getActualContent());
+    }
+  }
+
+  @Test
+  public void testParser_TrailingPlaceholderTakesLineBreaks() throws ParserException {
+    for (Parser.ExtractionEngine engine : Parser.ExtractionEngine.values()) {
+      Parser engineParser = new Parser(0, engine);
+      List<Placeholder> tokens =
+          engineParser.parse("Dec 1, 2014, 10:00 PM\nGARBAGE 123", "{datetime}");
+      assertEquals(1, tokens.size());
+      assertEquals("Dec 1, 2014, 10:00 PM\nGARBAGE 123", tokens.get(0).getActualContent());
+      tokens = engineParser.parse("Now: 1\n2", "Now: {number}");
+      assertEquals("1\n2", tokens.get(0).getActualContent());
+    }
+  }
+
+  @Test
+  public void testParser_LeadingPlaceholderTakesLineBreaks() throws ParserException {
+    for (Parser.ExtractionEngine engine : Parser.ExtractionEngine.values()) {
+      List<Placeholder> tokens = new Parser(0, engine)
+          .parse("ERROR boom\nDec 1, 2014 is today", "{date} is today");
+      assertEquals(1, tokens.size());
+      assertEquals("ERROR boom\nDec 1, 2014", tokens.get(0).getActualContent());
+    }
+  }
+
+  @Test
+  public void testParser_SegmentsNoBacktracking() throws ParserException {
+    StringBuilder expected = new StringBuilder();
+    StringBuilder actual = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      expected.append("{ignore} a ");
+      actual.append("x a a ");
+    }
+    actual.append("b");
+    try {
+      parser.parse(actual.toString(), expected.toString() + "c");
+      fail("Actual string does not end with the static text");
+    } catch (ParserException expectedException) {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void testParser_SegmentsSameAsRegex() {
+    Parser regexParser = new Parser(0, Parser.ExtractionEngine.REGEX);
+    Parser segmentsParser = new Parser(0, Parser.ExtractionEngine.SEGMENTS);
+    Random random = new Random(42);
+    String[] pieces = {"a", "b", "ab", " ", "\n", "\r", "\r\n", "{ignore}", "{number}", "{x}",
+        "{date}", "{number:{lenient:'true'}}"};
+    for (int i = 0; i < 5000; i++) {
+      String expected = randomText(random, pieces, 5);
+      String actual = randomText(random, pieces, 8);
+      String regexResult = parseToString(regexParser, actual, expected);
+      String segmentsResult = parseToString(segmentsParser, actual, expected);
+      assertEquals("Expected: " + expected + ", actual: " + actual, regexResult, segmentsResult);
+    }
+  }
+
+  private static String randomText(Random random, String[] pieces, int maxPieces) {
+    StringBuilder text = new StringBuilder();
+    int count = random.nextInt(maxPieces + 1);
+    for (int i = 0; i < count; i++) {
+      text.append(pieces[random.nextInt(pieces.length)]);
+    }
+    return text.toString();
+  }
+
+  private static String parseToString(Parser parser, String actual, String expected) {
+    try {
+      StringBuilder result = new StringBuilder();
+      for (Placeholder placeholder : parser.parse(actual, expected)) {
+        result.append(placeholder.getName()).append('=').append(placeholder.getActualContent())
+            .append('|');
+      }
+      return result.toString();
+    } catch (ParserException e) {
+      return "failed";
+    }
+  }
 }
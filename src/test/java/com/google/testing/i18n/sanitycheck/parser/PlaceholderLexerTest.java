@@ -0,0 +1,102 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.parser;
+
+import com.google.common.collect.ImmutableList;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tests the {@link PlaceholderLexer} class functionality.
+ */
+@RunWith(JUnit4.class)
+public class PlaceholderLexerTest extends TestCase {
+
+  /** Regular expression based placeholder detection that the lexer replaces. */
+  private static final Pattern PLACEHOLDER_PATTERN =
+      Pattern.compile("((?<!\\\\)\\{.*?(?<!\\\\)\\}+)", Pattern.MULTILINE | Pattern.DOTALL);
+
+  @Test
+  public void testTokenize_Simple() {
+    PlaceholderLexer.Tokens tokens =
+        PlaceholderLexer.tokenize("te\\{st {date}, {time:{lenient:false}} and \\} {");
+    assertEquals(ImmutableList.of("te{st ", ", ", " and } {"), tokens.getLiterals());
+    assertEquals(ImmutableList.of("{date}", "{time:{lenient:false}}"),
+        tokens.getRawPlaceholders());
+    assertFalse(tokens.endsWithPlaceholder());
+  }
+
+  @Test
+  public void testTokenize_EndsWithPlaceholder() {
+    PlaceholderLexer.Tokens tokens = PlaceholderLexer.tokenize("{a}{b\\}c}");
+    assertEquals(ImmutableList.of("", "", ""), tokens.getLiterals());
+    assertEquals(ImmutableList.of("{a}", "{b}c}"), tokens.getRawPlaceholders());
+    assertTrue(tokens.endsWithPlaceholder());
+  }
+
+  @Test
+  public void testTokenize_NoPlaceholders() {
+    PlaceholderLexer.Tokens tokens = PlaceholderLexer.tokenize("* ? + [ ( ) \\{ \\} ^ $ | \\ .");
+    assertEquals(ImmutableList.of("* ? + [ ( ) { } ^ $ | \\ ."), tokens.getLiterals());
+    assertTrue(tokens.getRawPlaceholders().isEmpty());
+  }
+
+  @Test
+  public void testTokenize_SameAsRegex() {
+    Random random = new Random(42);
+    char[] alphabet = {'{', '}', '\\', 'a', ':', ' ', '\n'};
+    for (int i = 0; i < 10000; i++) {
+      StringBuilder expected = new StringBuilder();
+      int length = random.nextInt(20);
+      for (int j = 0; j < length; j++) {
+        expected.append(alphabet[random.nextInt(alphabet.length)]);
+      }
+      assertSameAsRegex(expected.toString());
+    }
+  }
+
+  private static void assertSameAsRegex(String expected) {
+    ImmutableList.Builder<String> literals = ImmutableList.builder();
+    ImmutableList.Builder<String> rawPlaceholders = ImmutableList.builder();
+    boolean endsWithPlaceholder = false;
+    Matcher matcher = PLACEHOLDER_PATTERN.matcher(expected);
+    int position = 0;
+    while (matcher.find()) {
+      literals.add(unescape(expected.substring(position, matcher.start())));
+      rawPlaceholders.add(unescape(matcher.group()));
+      endsWithPlaceholder = matcher.hitEnd();
+      position = matcher.end();
+    }
+    literals.add(unescape(expected.substring(position)));
+
+    PlaceholderLexer.Tokens tokens = PlaceholderLexer.tokenize(expected);
+    assertEquals(expected, literals.build(), tokens.getLiterals());
+    assertEquals(expected, rawPlaceholders.build(), tokens.getRawPlaceholders());
+    assertEquals(expected, endsWithPlaceholder, tokens.endsWithPlaceholder());
+  }
+
+  private static String unescape(String text) {
+    return text.replace("\\{", "{").replace("\\}", "}");
+  }
+}
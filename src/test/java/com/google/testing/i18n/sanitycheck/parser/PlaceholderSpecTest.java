@@ -0,0 +1,83 @@
+/*
+ *  Copyright 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.testing.i18n.sanitycheck.parser;
+
+import com.google.common.collect.ImmutableMap;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests the {@link PlaceholderSpec} class functionality.
+ */
+@RunWith(JUnit4.class)
+public class PlaceholderSpecTest extends TestCase {
+
+  @Test
+  public void testOf_Simple() {
+    PlaceholderSpec spec = PlaceholderSpec.of("{date}");
+    assertEquals("date", spec.getName());
+    assertTrue(spec.getParams().isEmpty());
+    assertNull(PlaceholderSpec.of("{ date}"));
+  }
+
+  @Test
+  public void testOf_Params() {
+    PlaceholderSpec spec =
+        PlaceholderSpec.of("{datetime:{pattern:'dd/MM/yyyy HH:mm', lenient:false, value:120}}");
+    assertEquals("datetime", spec.getName());
+    assertEquals(ImmutableMap.of("pattern", "dd/MM/yyyy HH:mm", "lenient", "false", "value", "120"),
+        spec.getParams());
+  }
+
+  @Test
+  public void testOf_LenientSyntax() {
+    assertEquals(ImmutableMap.of("b", "c", "d", "e", "f", "en-US"),
+        PlaceholderSpec.of(" { a = { \"b\" => c; d : 'e', f:en-US } } ").getParams());
+    assertEquals(ImmutableMap.of("b", "cA"), PlaceholderSpec.of("{a:{b:'c\\u0041'}}").getParams());
+    assertTrue(PlaceholderSpec.of("{a:{}}").getParams().isEmpty());
+    assertEquals("a", PlaceholderSpec.of("{a:{b:c},x:{}}").getName());
+  }
+
+  @Test
+  public void testOf_InvalidSyntax() {
+    assertNull(PlaceholderSpec.of("{a:{b:c,b:d}}"));
+    assertNull(PlaceholderSpec.of("{a:{b:null}}"));
+    assertNull(PlaceholderSpec.of("{a:5}"));
+    assertNull(PlaceholderSpec.of("{a:{b:[1]}}"));
+    assertNull(PlaceholderSpec.of("{a:{b:'x'y}}"));
+    assertNull(PlaceholderSpec.of("{a:{b:c,}}"));
+    assertNull(PlaceholderSpec.of("{:{b:c}}"));
+    assertNull(PlaceholderSpec.of("{a:{b:c}"));
+    assertNull(PlaceholderSpec.of("{a:{b:'c}}"));
+  }
+
+  @Test
+  public void testOf_Interned() {
+    assertSame(PlaceholderSpec.of("{number:{value:42}}"), PlaceholderSpec.of("{number:{value:42}}"));
+  }
+
+  @Test
+  public void testNewPlaceholder() {
+    Placeholder placeholder = PlaceholderSpec.of("{date:{lenient:false}}").newPlaceholder("today");
+    assertEquals("date", placeholder.getName());
+    assertEquals("today", placeholder.getActualContent());
+    assertFalse(placeholder.isLenient());
+  }
+}